@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.core;
+
+import ewc.utilities.testableio.responses.SequenceIndex;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * I am the table of sequence indices kept in a memory-mapped file, so that the processes mapping
+ * the same file advance the same indices. The indices are updated atomically via {@link VarHandle}s.
+ *
+ * <p>The file starts with the header holding the magic number and the number of slots, followed by
+ * the slots, one cache line each. A slot holds the hash of the source and query it is claimed for,
+ * the hash of the source alone and the index. Slots are claimed with CAS on the first use of the
+ * index and never released.</p>
+ *
+ * @since 0.4
+ */
+final class SharedSequences {
+    private static final int MAGIC = 0x54494F31;
+    private static final int HEADER = 64;
+    private static final int SLOT = 64;
+    private static final int SLOTS_OFFSET = 4;
+    private static final int SOURCE_OFFSET = 8;
+    private static final int INDEX_OFFSET = 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final VarHandle INTS =
+        MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONGS =
+        MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+
+    /**
+     * Maps the file, creating and initializing it if needed.
+     *
+     * @param file The file shared by the processes.
+     * @param slots The number of slots if the file has not been initialized yet.
+     * @throws IOException If the file cannot be mapped.
+     */
+    SharedSequences(Path file, int slots) throws IOException {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("Number of slots must be positive, got %d".formatted(slots));
+        }
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+        )) {
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+            final int magic = (int) INTS.compareAndExchange(header, 0, 0, MAGIC);
+            if (magic != 0 && magic != MAGIC) {
+                throw new IllegalStateException("%s is not a shared sequences file".formatted(file));
+            }
+            final int existing = (int) INTS.compareAndExchange(header, SLOTS_OFFSET, 0, slots);
+            final int actual = existing == 0 ? slots : existing;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeFor(actual));
+            this.slots = actual;
+        }
+    }
+
+    /**
+     * Returns the shared index for the source and query. The slot is only claimed on the first
+     * use of the index, so the responses ignoring their index, like the raw ones, take no slots.
+     *
+     * @param source The source of the stub.
+     * @param query The query of the stub.
+     * @return The index backed by the file.
+     */
+    SequenceIndex indexFor(SourceId source, QueryId query) {
+        return new ClaimingIndex(source, query);
+    }
+
+    /**
+     * Finds the slot of the source and query, claiming a free one if there is none yet.
+     *
+     * @param source The source of the stub.
+     * @param query The query of the stub.
+     * @return The index backed by the slot.
+     * @throws IllegalStateException If all the slots are claimed for other stubs.
+     */
+    private MappedIndex claim(SourceId source, QueryId query) {
+        final long sourceHash = hash(FNV_OFFSET, source.source());
+        final long key = nonZero(hash(sourceHash * FNV_PRIME, query.id()));
+        final int start = (int) Long.remainderUnsigned(key, this.slots);
+        for (int probe = 0; probe < this.slots; probe++) {
+            final int offset = HEADER + (start + probe) % this.slots * SLOT;
+            final long claimed = (long) LONGS.compareAndExchange(this.buffer, offset, 0L, key);
+            if (claimed == 0L) {
+                LONGS.setVolatile(this.buffer, offset + SOURCE_OFFSET, nonZero(sourceHash));
+            }
+            if (claimed == 0L || claimed == key) {
+                return new MappedIndex(offset + INDEX_OFFSET);
+            }
+        }
+        throw new IllegalStateException("No free slots left in %s".formatted(this.file));
+    }
+
+    /**
+     * Rewinds all the indices claimed for the source.
+     *
+     * @param source The source to reset the indices for.
+     */
+    void reset(SourceId source) {
+        final long sourceHash = nonZero(hash(FNV_OFFSET, source.source()));
+        for (int slot = 0; slot < this.slots; slot++) {
+            final int offset = HEADER + slot * SLOT;
+            if ((long) LONGS.getVolatile(this.buffer, offset + SOURCE_OFFSET) == sourceHash) {
+                INTS.setVolatile(this.buffer, offset + INDEX_OFFSET, 0);
+            }
+        }
+    }
+
+    private static long hash(long seed, String value) {
+        long result = seed;
+        for (int i = 0; i < value.length(); i++) {
+            result = (result ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return result;
+    }
+
+    private static long nonZero(long hash) {
+        return hash == 0L ? 1L : hash;
+    }
+
+    private static long sizeFor(int slots) {
+        return HEADER + (long) slots * SLOT;
+    }
+
+    /**
+     * The index claiming its slot on the first use.
+     */
+    private final class ClaimingIndex implements SequenceIndex {
+        private final SourceId source;
+        private final QueryId query;
+        private volatile MappedIndex claimed;
+
+        private ClaimingIndex(SourceId source, QueryId query) {
+            this.source = source;
+            this.query = query;
+        }
+
+        @Override
+        public int currentValue() {
+            return this.slot().currentValue();
+        }
+
+        @Override
+        public int getAndIncrement() {
+            return this.slot().getAndIncrement();
+        }
+
+        @Override
+        public int getAndAdd(int delta) {
+            return this.slot().getAndAdd(delta);
+        }
+
+        @Override
+        public int getAndAddWithin(int delta, int limit) {
+            return this.slot().getAndAddWithin(delta, limit);
+        }
+
+        /**
+         * Claims the slot if it has not been claimed yet. Claiming is idempotent, so the threads
+         * racing here end up with the same slot.
+         *
+         * @return The index backed by the slot.
+         */
+        private MappedIndex slot() {
+            MappedIndex result = this.claimed;
+            if (result == null) {
+                result = claim(this.source, this.query);
+                this.claimed = result;
+            }
+            return result;
+        }
+    }
+
+    private final class MappedIndex implements SequenceIndex {
+        private final int offset;
+
+        private MappedIndex(int offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public int currentValue() {
+            return (int) INTS.getVolatile(buffer, this.offset);
+        }
+
+        @Override
+        public int getAndIncrement() {
+            return (int) INTS.getAndAdd(buffer, this.offset, 1);
+        }
+
+        @Override
+        public int getAndAdd(int delta) {
+            return (int) INTS.getAndAdd(buffer, this.offset, delta);
+        }
+
+        @Override
+        public int getAndAddWithin(int delta, int limit) {
+            int current;
+            do {
+                current = (int) INTS.getVolatile(buffer, this.offset);
+                if (current > limit - delta) {
+                    return -1;
+                }
+            } while (!INTS.compareAndSet(buffer, this.offset, current, current + delta));
+            return current;
+        }
+    }
+}
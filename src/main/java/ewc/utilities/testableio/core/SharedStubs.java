@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.core;
+
+import ewc.utilities.testableio.responses.Response;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * I am the facade whose sequences are advanced through the {@link SharedSequences}, so that
+ * the processes mapping the same file see the same sequence positions.
+ *
+ * <p>Responses and converters are Java objects and stay in the process: every process registers
+ * the same stubs, and the sequences of those stubs share their indices via the file. Registering
+ * a stub does not rewind its shared index, so a process started later does not disturb the others;
+ * {@link #resetStubsForSource(SourceId)} rewinds the indices of the source for all the processes.</p>
+ *
+ * @since 0.4
+ */
+final class SharedStubs implements StubFacade {
+    private final Stubs stubs = new Stubs();
+    private final SharedSequences sequences;
+
+    SharedStubs(SharedSequences sequences) {
+        this.sequences = sequences;
+    }
+
+    @Override
+    public void setDefaultStubForQuery(QueryId query, Response response) {
+        this.setStubForQuerySource(SourceId.DEFAULT_SOURCE, query, response);
+    }
+
+    @Override
+    public void setStubForQuerySource(SourceId source, QueryId query, Response response) {
+        this.stubs.setStubForQuerySource(
+            source,
+            query,
+            response.indexedBy(this.sequences.indexFor(source, query))
+        );
+    }
+
+    @Override
+    public void removeDefaultStubForQuery(QueryId query) {
+        this.stubs.removeDefaultStubForQuery(query);
+    }
+
+    @Override
+    public void removeStubForQuerySource(SourceId source, QueryId query) {
+        this.stubs.removeStubForQuerySource(source, query);
+    }
+
+    @Override
+    public void setSourceGroup(SourceId source, SourceId group) {
+        this.stubs.setSourceGroup(source, group);
+    }
+
+    @Override
+    public void setConverterForQuery(QueryId query, BiFunction<Object, Map<String, Object>, ?> converter) {
+        this.stubs.setConverterForQuery(query, converter);
+    }
+
+    @Override
+    public <T> T next(SourceId source, QueryId query, Class<T> type) {
+        return this.stubs.next(source, query, type);
+    }
+
+    @Override
+    public <T> List<T> nextBatch(SourceId source, QueryId query, Class<T> type, int count) {
+        return this.stubs.nextBatch(source, query, type, count);
+    }
+
+    @Override
+    public <T> void nextBatch(SourceId source, QueryId query, T[] into) {
+        this.stubs.nextBatch(source, query, into);
+    }
+
+    @Override
+    public Map<QueryId, Response> activeStubsForSource(SourceId source) {
+        return this.stubs.activeStubsForSource(source);
+    }
+
+    @Override
+    public Map<QueryId, Response> activeStubsView(SourceId source) {
+        return this.stubs.activeStubsView(source);
+    }
+
+    @Override
+    public void resetStubsForSource(SourceId source) {
+        this.stubs.resetStubsForSource(source);
+        this.sequences.reset(source);
+    }
+
+    @Override
+    public void subscribe(StubListener listener) {
+        this.stubs.subscribe(listener);
+    }
+
+    @Override
+    public void unsubscribe(StubListener listener) {
+        this.stubs.unsubscribe(listener);
+    }
+}
@@ -25,6 +25,10 @@
 package ewc.utilities.testableio.core;
 
 import ewc.utilities.testableio.responses.Response;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 
@@ -33,15 +37,112 @@ public interface StubFacade {
         return new Stubs();
     }
 
+    /**
+     * Creates a lightweight facade on top of the given one. The overlay reads through to the base
+     * stubs and converters, keeps its own changes to itself and advances its own copies of the base
+     * sequences. The base is frozen by this call, so it can be shared by any number of overlays,
+     * e.g. one per test running in parallel.
+     *
+     * @param base The facade with the shared stubs, created by {@link #basic()} or by this method.
+     * @return The new overlay facade.
+     */
+    static StubFacade overlay(StubFacade base) {
+        if (base instanceof Stubs stubs) {
+            return Stubs.overlayOf(stubs);
+        }
+        throw new IllegalArgumentException(
+            "Cannot overlay the facade of type %s".formatted(base.getClass().getName())
+        );
+    }
+
+    /**
+     * Creates the facade sharing the sequence positions with the other processes via the memory-mapped
+     * file. Every process still registers its own stubs, but the sequences registered for the same
+     * source and query are advanced together by all the processes.
+     *
+     * @param file The file shared by the processes, created if it does not exist.
+     * @param slots The maximum number of the sequenced stubs the file can hold, if it is created by this call.
+     * @return The new shared facade.
+     */
+    static StubFacade shared(Path file, int slots) {
+        try {
+            return new SharedStubs(new SharedSequences(file, slots));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static StubFacade shared(Path file) {
+        return shared(file, 4096);
+    }
+
     void setDefaultStubForQuery(QueryId query, Response response);
 
     void setStubForQuerySource(SourceId source, QueryId query, Response response);
 
+    void removeDefaultStubForQuery(QueryId query);
+
+    void removeStubForQuerySource(SourceId source, QueryId query);
+
+    /**
+     * Makes the source a member of the group, so that it inherits the stubs of the group, unless
+     * it has its own ones. Groups may be members of other groups, and every chain of groups ends
+     * with the default stubs. The stub resolved through the groups is cached for the source and
+     * query until any level of its chain changes.
+     *
+     * @param source The source joining the group.
+     * @param group The group to inherit the stubs from.
+     */
+    void setSourceGroup(SourceId source, SourceId group);
+
     void setConverterForQuery(QueryId query, BiFunction<Object, Map<String, Object>, ?> converter);
 
     <T> T next(SourceId source, QueryId query, Class<T> type);
 
+    /**
+     * Takes the given number of the next responses at once. The stub and its converter are resolved
+     * once for the whole batch, and a sequence reserves all the positions with a single update. If
+     * the sequence has fewer responses left than requested, none of them is taken and the
+     * {@link ewc.utilities.testableio.exceptions.NoMoreResponsesException} is thrown. If a response
+     * of the batch throws, its exception is thrown and the responses reserved after it are consumed,
+     * unlike with the separate {@link #next} calls.
+     *
+     * @param source The source of the query.
+     * @param query The query to respond to.
+     * @param type The type of the converted responses.
+     * @param count The number of responses to take.
+     * @param <T> The type of the converted responses.
+     * @return The responses in the order they would be returned by {@link #next}.
+     */
+    <T> List<T> nextBatch(SourceId source, QueryId query, Class<T> type, int count);
+
+    /**
+     * Fills the array with the next responses, like {@link #nextBatch(SourceId, QueryId, Class, int)}.
+     *
+     * @param source The source of the query.
+     * @param query The query to respond to.
+     * @param into The array to fill.
+     * @param <T> The type of the converted responses.
+     */
+    <T> void nextBatch(SourceId source, QueryId query, T[] into);
+
     Map<QueryId, Response> activeStubsForSource(SourceId source);
 
+    /**
+     * Returns the read-only view of the stubs active for the source. Unlike the snapshot returned
+     * by {@link #activeStubsForSource(SourceId)}, the view always reflects the current state and
+     * only looks up the responses actually read from it: {@code get} and {@code containsKey} look up
+     * a single stub, while the size and the iteration reuse the queries collected after the latest
+     * change of the stubs, and the iteration peeks every stub it reaches.
+     *
+     * @param source The source to view the stubs for.
+     * @return The live view of the current responses keyed by their queries.
+     */
+    Map<QueryId, Response> activeStubsView(SourceId source);
+
     void resetStubsForSource(SourceId source);
+
+    void subscribe(StubListener listener);
+
+    void unsubscribe(StubListener listener);
 }
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.core;
+
+import ewc.utilities.testableio.responses.Response;
+
+/**
+ * I am notified about every change of the stubs made through the {@link StubFacade}, so that
+ * the observers can follow the current state without taking its snapshots.
+ *
+ * <p>The notifications are delivered synchronously on the thread making the change. The default
+ * stubs are reported under the source they are registered for, i.e. the common default source.</p>
+ *
+ * @since 0.4
+ */
+public interface StubListener {
+    /**
+     * Called after the stub has been set.
+     *
+     * @param source The source the stub is set for.
+     * @param query The query the stub is set for.
+     * @param response The new response.
+     */
+    default void stubSet(SourceId source, QueryId query, Response response) {
+    }
+
+    /**
+     * Called after the stub has been removed.
+     *
+     * @param source The source the stub was set for.
+     * @param query The query the stub was set for.
+     */
+    default void stubRemoved(SourceId source, QueryId query) {
+    }
+
+    /**
+     * Called after all the stubs specific to the source have been reset.
+     *
+     * @param source The source whose stubs have been reset.
+     */
+    default void stubsReset(SourceId source) {
+    }
+
+    /**
+     * Called after the source has joined the group.
+     *
+     * @param source The source that has joined the group.
+     * @param group The group the source inherits the stubs from.
+     */
+    default void sourceGroupSet(SourceId source, SourceId group) {
+    }
+
+    /**
+     * Called after the response has been taken from the stub that changes its state, like the
+     * sequence of responses.
+     *
+     * @param source The source the advanced stub is set for.
+     * @param query The query the advanced stub is set for.
+     * @param current The response the stub is going to return next.
+     */
+    default void sequenceAdvanced(SourceId source, QueryId query, Response current) {
+    }
+}
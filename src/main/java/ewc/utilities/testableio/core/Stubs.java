@@ -28,31 +28,140 @@ import ewc.utilities.testableio.exceptions.NoMoreResponsesException;
 import ewc.utilities.testableio.exceptions.UnconfiguredStubException;
 import ewc.utilities.testableio.responses.ExceptionResponse;
 import ewc.utilities.testableio.responses.Response;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
-import java.util.stream.Collectors;
 
 class Stubs implements StubFacade {
-    private final Map<ResponseId, Response> stubs = new HashMap<>();
-    private final Map<QueryId, BiFunction<Object, Map<String, Object>, ?>> converters = new HashMap<>();
+    /**
+     * The frozen stubs this instance reads through to, or null if it is not an overlay.
+     */
+    private final Stubs base;
+    private final Map<SourceId, Map<QueryId, Response>> stubs = new ConcurrentHashMap<>();
+    private final Map<QueryId, BiFunction<Object, Map<String, Object>, ?>> converters = new ConcurrentHashMap<>();
+
+    /**
+     * Own copies of the base responses, so that sequences are advanced independently of the base
+     * and of the other overlays.
+     */
+    private final Map<SourceId, Map<QueryId, Response>> inherited = new ConcurrentHashMap<>();
+    private final List<StubListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The sources reset in this overlay, whose base stubs are hidden.
+     */
+    private final Set<SourceId> reset = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The queries removed in this overlay, whose base stubs are hidden, by source.
+     */
+    private final Map<SourceId, Set<QueryId>> removed = new ConcurrentHashMap<>();
+
+    /**
+     * The group every grouped source inherits the stubs from.
+     */
+    private final Map<SourceId, SourceId> groups = new ConcurrentHashMap<>();
+
+    /**
+     * The direct members of every group, to find the sources affected by a change of the group.
+     */
+    private final Map<SourceId, Set<SourceId>> members = new ConcurrentHashMap<>();
+
+    /**
+     * The stubs resolved through the groups, by the grouped source and query. An entry is removed
+     * right after any change of the stubs or groups it may depend on.
+     */
+    private final Map<SourceId, Map<QueryId, Resolved>> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * The number of changes of the stubs and groups so far, advanced after each change, so that
+     * the views know when their cached queries are outdated.
+     */
+    private final AtomicLong revision = new AtomicLong();
+
+    /**
+     * Whether this instance is shared as an overlay base and therefore rejects any changes.
+     */
+    private volatile boolean frozen;
+
+    Stubs() {
+        this(null);
+    }
+
+    private Stubs(Stubs base) {
+        this.base = base;
+    }
+
+    static Stubs overlayOf(Stubs base) {
+        base.frozen = true;
+        return new Stubs(base);
+    }
 
     @Override
     public <T> T next(SourceId source, QueryId query, Class<T> type) {
-        final ResponseId key = new ResponseId(source, query);
-        if (noResponseFor(key)) {
-            throw new UnconfiguredStubException("No stubs configured for query: %s".formatted(query.id()));
+        final Response stub = this.requiredStubFor(source, query);
+        boolean exhausted = false;
+        try {
+            return stub.next(this.converterFor(query));
+        } catch (ArrayIndexOutOfBoundsException e) {
+            exhausted = true;
+            throw new NoMoreResponsesException(query.id());
+        } finally {
+            if (!exhausted && !this.listeners.isEmpty()) {
+                this.notifyAdvanced(source, query, stub);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> nextBatch(SourceId source, QueryId query, Class<T> type, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Batch size must not be negative, got %d".formatted(count));
         }
+        final Object[] into = new Object[count];
+        this.nextBatch(source, query, into);
+        return (List<T>) Arrays.asList(into);
+    }
+
+    @Override
+    public <T> void nextBatch(SourceId source, QueryId query, T[] into) {
+        final Response stub = this.requiredStubFor(source, query);
+        boolean exhausted = false;
         try {
-            return this.stubFor(key).next(this.converterFor(key.query));
+            stub.nextBatch(this.converterFor(query), into);
         } catch (ArrayIndexOutOfBoundsException e) {
+            exhausted = true;
             throw new NoMoreResponsesException(query.id());
+        } finally {
+            if (!exhausted && !this.listeners.isEmpty()) {
+                this.notifyAdvanced(source, query, stub);
+            }
+        }
+    }
+
+    private Response requiredStubFor(SourceId source, QueryId query) {
+        final Response stub = this.stubFor(source, query);
+        if (stub == null) {
+            throw new UnconfiguredStubException("No stubs configured for query: %s".formatted(query.id()));
         }
+        return stub;
     }
 
     @SuppressWarnings("unchecked")
     private <T> BiFunction<Object, Map<String, Object>, T> converterFor(QueryId query) {
-        var converter = (BiFunction<Object, Map<String, Object>, T>) this.converters.get(query);
+        var converter = (BiFunction<Object, Map<String, Object>, T>) this.registeredConverter(query);
         if (converter != null) {
             return converter;
         }
@@ -61,58 +170,400 @@ class Stubs implements StubFacade {
 
     @Override
     public void setDefaultStubForQuery(QueryId query, Response response) {
-        this.stubs.put(defaultResponseIdFor(query), response);
+        this.setStubForQuerySource(SourceId.DEFAULT_SOURCE, query, response);
     }
 
     @Override
     public void setStubForQuerySource(SourceId source, QueryId query, Response response) {
-        this.stubs.put(new ResponseId(source, query), response);
+        this.ensureNotFrozen();
+        this.stubs.computeIfAbsent(source, s -> new ConcurrentHashMap<>()).put(query, response);
+        this.invalidate(source, query);
+        this.revision.incrementAndGet();
+        this.listeners.forEach(listener -> listener.stubSet(source, query, response));
+    }
+
+    @Override
+    public void removeDefaultStubForQuery(QueryId query) {
+        this.removeStubForQuerySource(SourceId.DEFAULT_SOURCE, query);
+    }
+
+    @Override
+    public void removeStubForQuerySource(SourceId source, QueryId query) {
+        this.ensureNotFrozen();
+        removeFrom(this.stubs, source, query);
+        removeFrom(this.inherited, source, query);
+        if (this.base != null) {
+            this.removed.computeIfAbsent(source, s -> ConcurrentHashMap.newKeySet()).add(query);
+        }
+        this.invalidate(source, query);
+        this.revision.incrementAndGet();
+        this.listeners.forEach(listener -> listener.stubRemoved(source, query));
     }
 
     @Override
     public void setConverterForQuery(QueryId query, BiFunction<Object, Map<String, Object>, ?> converter) {
+        this.ensureNotFrozen();
         this.converters.put(query, converter);
     }
 
     @Override
     public Map<QueryId, Response> activeStubsForSource(SourceId source) {
-        Map<QueryId, Response> result = responsesFor(SourceId.DEFAULT_SOURCE);
-        result.putAll(responsesFor(source));
-        return result;
+        return new HashMap<>(this.activeStubsView(source));
+    }
+
+    @Override
+    public Map<QueryId, Response> activeStubsView(SourceId source) {
+        return new ActiveStubs(source);
     }
 
     @Override
     public void resetStubsForSource(SourceId source) {
-        this.stubs.entrySet().removeIf(e -> e.getKey().source.equals(source));
+        this.ensureNotFrozen();
+        this.stubs.remove(source);
+        this.inherited.remove(source);
+        if (this.base != null) {
+            this.reset.add(source);
+            this.removed.remove(source);
+        }
+        this.invalidate(source);
+        this.revision.incrementAndGet();
+        this.listeners.forEach(listener -> listener.stubsReset(source));
     }
 
-    private Response stubFor(ResponseId key) {
-        return this.stubs.getOrDefault(key, this.stubs.get(defaultResponseIdFor(key.query)));
+    @Override
+    public void setSourceGroup(SourceId source, SourceId group) {
+        this.ensureNotFrozen();
+        if (source.equals(SourceId.DEFAULT_SOURCE)) {
+            throw new IllegalArgumentException("The default source cannot be a member of a group");
+        }
+        for (SourceId level = group; level != null; level = this.groupOf(level)) {
+            if (level.equals(source)) {
+                throw new IllegalArgumentException(
+                    "%s cannot be a member of %s: the groups would form a cycle"
+                        .formatted(source.source(), group.source())
+                );
+            }
+        }
+        final SourceId previous = this.groups.put(source, group);
+        if (previous != null && this.members.containsKey(previous)) {
+            this.members.get(previous).remove(source);
+        }
+        this.members.computeIfAbsent(group, g -> ConcurrentHashMap.newKeySet()).add(source);
+        this.invalidate(source);
+        this.revision.incrementAndGet();
+        this.listeners.forEach(listener -> listener.sourceGroupSet(source, group));
     }
 
-    private static ResponseId defaultResponseIdFor(QueryId query) {
-        return new ResponseId(SourceId.DEFAULT_SOURCE, query);
+    @Override
+    public void subscribe(StubListener listener) {
+        this.listeners.add(listener);
     }
 
-    private boolean noResponseFor(ResponseId key) {
-        return !stubs.containsKey(key) && !stubs.containsKey(defaultResponseIdFor(key.query));
+    @Override
+    public void unsubscribe(StubListener listener) {
+        this.listeners.remove(listener);
     }
 
-    private Map<QueryId, Response> responsesFor(SourceId source) {
-        return this.stubs.entrySet().stream()
-            .filter(e -> e.getKey().source.equals(source))
-            .collect(Collectors.toMap(
-                e -> e.getKey().query,
-                e -> {
-                    try {
-                        return e.getValue().peek();
-                    } catch (ArrayIndexOutOfBoundsException ex) {
-                        return new ExceptionResponse(new NoMoreResponsesException(e.getKey().query.id()));
-                    }
+    private Response stubFor(SourceId source, QueryId query) {
+        if (this.groupOf(source) == null) {
+            final Response specific = this.lookup(source, query);
+            if (specific != null) {
+                return specific;
+            }
+            return this.lookup(SourceId.DEFAULT_SOURCE, query);
+        }
+        final Map<QueryId, Resolved> forSource =
+            this.resolved.computeIfAbsent(source, s -> new ConcurrentHashMap<>());
+        Resolved result = forSource.get(query);
+        if (result == null) {
+            result = forSource.computeIfAbsent(query, q -> this.resolution(source, q));
+        }
+        if (result == null) {
+            return null;
+        }
+        return result.response;
+    }
+
+    /**
+     * Walks the groups of the source up to the default source, looking for the stub.
+     *
+     * @param source The source of the query.
+     * @param query The query to find the stub for.
+     * @return The found stub along with the source it is set for, or null if there is none.
+     */
+    private Resolved resolution(SourceId source, QueryId query) {
+        for (SourceId level = source; level != null; level = this.groupOf(level)) {
+            final Response response = this.lookup(level, query);
+            if (response != null) {
+                return new Resolved(level, response);
+            }
+        }
+        final Response common = this.lookup(SourceId.DEFAULT_SOURCE, query);
+        if (common == null) {
+            return null;
+        }
+        return new Resolved(SourceId.DEFAULT_SOURCE, common);
+    }
+
+    private SourceId groupOf(SourceId source) {
+        final SourceId own = this.groups.get(source);
+        if (own != null || this.base == null) {
+            return own;
+        }
+        return this.base.groupOf(source);
+    }
+
+    private void collectMembers(SourceId group, Set<SourceId> result) {
+        if (this.base != null) {
+            this.base.collectMembers(group, result);
+        }
+        for (SourceId member : this.members.getOrDefault(group, Set.of())) {
+            if (result.add(member)) {
+                this.collectMembers(member, result);
+            }
+        }
+    }
+
+    /**
+     * Forgets the resolved stubs for the query of the source and of all its direct and indirect
+     * members.
+     *
+     * @param source The changed source.
+     * @param query The changed query.
+     */
+    private void invalidate(SourceId source, QueryId query) {
+        if (this.resolved.isEmpty()) {
+            return;
+        }
+        if (source.equals(SourceId.DEFAULT_SOURCE)) {
+            this.resolved.values().forEach(forSource -> forSource.remove(query));
+            return;
+        }
+        for (SourceId affected : this.affectedBy(source)) {
+            final Map<QueryId, Resolved> forSource = this.resolved.get(affected);
+            if (forSource != null) {
+                forSource.remove(query);
+            }
+        }
+    }
+
+    /**
+     * Forgets all the resolved stubs of the source and of all its direct and indirect members. The
+     * default stubs end every chain of groups, so the change of the default source forgets all of
+     * them.
+     *
+     * @param source The changed source.
+     */
+    private void invalidate(SourceId source) {
+        if (this.resolved.isEmpty()) {
+            return;
+        }
+        if (source.equals(SourceId.DEFAULT_SOURCE)) {
+            this.resolved.values().forEach(Map::clear);
+            return;
+        }
+        for (SourceId affected : this.affectedBy(source)) {
+            final Map<QueryId, Resolved> forSource = this.resolved.get(affected);
+            if (forSource != null) {
+                forSource.clear();
+            }
+        }
+    }
+
+    private Set<SourceId> affectedBy(SourceId source) {
+        final Set<SourceId> result = new HashSet<>();
+        result.add(source);
+        this.collectMembers(source, result);
+        return result;
+    }
+
+    /**
+     * Finds the response registered exactly for the source and query, forking the base response
+     * on the first access. The base responses of the sources reset and the queries removed in
+     * this overlay are hidden, just as if they were never set.
+     *
+     * @param source The source of the response.
+     * @param query The query of the response.
+     * @return The response or null if there is none.
+     */
+    private Response lookup(SourceId source, QueryId query) {
+        final Response own = responseIn(this.stubs, source, query);
+        if (own != null || this.base == null || this.hides(source, query)) {
+            return own;
+        }
+        final Response template = this.base.declared(source, query);
+        if (template == null) {
+            return null;
+        }
+        return this.inherited.computeIfAbsent(source, s -> new ConcurrentHashMap<>())
+            .computeIfAbsent(query, q -> template.forked());
+    }
+
+    private Response declared(SourceId source, QueryId query) {
+        final Response own = responseIn(this.stubs, source, query);
+        if (own != null || this.base == null || this.hides(source, query)) {
+            return own;
+        }
+        return this.base.declared(source, query);
+    }
+
+    private boolean hides(SourceId source, QueryId query) {
+        return this.reset.contains(source) || this.removed.getOrDefault(source, Set.of()).contains(query);
+    }
+
+    private static Response responseIn(
+        Map<SourceId, Map<QueryId, Response>> responses,
+        SourceId source,
+        QueryId query
+    ) {
+        final Map<QueryId, Response> forSource = responses.get(source);
+        if (forSource == null) {
+            return null;
+        }
+        return forSource.get(query);
+    }
+
+    private static void removeFrom(
+        Map<SourceId, Map<QueryId, Response>> responses,
+        SourceId source,
+        QueryId query
+    ) {
+        final Map<QueryId, Response> forSource = responses.get(source);
+        if (forSource != null) {
+            forSource.remove(query);
+        }
+    }
+
+    private BiFunction<Object, Map<String, Object>, ?> registeredConverter(QueryId query) {
+        final BiFunction<Object, Map<String, Object>, ?> own = this.converters.get(query);
+        if (own != null || this.base == null) {
+            return own;
+        }
+        return this.base.registeredConverter(query);
+    }
+
+    private void collectQueries(SourceId source, Set<QueryId> result) {
+        if (this.base != null && !this.reset.contains(source)) {
+            final Set<QueryId> inheritedQueries = new HashSet<>();
+            this.base.collectQueries(source, inheritedQueries);
+            inheritedQueries.removeAll(this.removed.getOrDefault(source, Set.of()));
+            result.addAll(inheritedQueries);
+        }
+        result.addAll(this.stubs.getOrDefault(source, Map.of()).keySet());
+    }
+
+    private void ensureNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("Stubs are shared as an overlay base and cannot be changed");
+        }
+    }
+
+    /**
+     * Notifies the listeners about the response the stub moved to, if it is a different one. It
+     * is only called when a response has been taken, so the calls to an exhausted sequence, which
+     * take nothing, do not notify anyone.
+     *
+     * @param source The source of the query.
+     * @param query The query the response has been taken for.
+     * @param stub The stub the response has been taken from.
+     */
+    private void notifyAdvanced(SourceId source, QueryId query, Response stub) {
+        final Response current = peeked(query, stub);
+        if (current == stub) {
+            return;
+        }
+        final Resolved resolution = this.resolution(source, query);
+        final SourceId owner = resolution == null ? SourceId.DEFAULT_SOURCE : resolution.source;
+        this.listeners.forEach(listener -> listener.sequenceAdvanced(owner, query, current));
+    }
+
+    private static Response peeked(QueryId query, Response stub) {
+        try {
+            return stub.peek();
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            return new ExceptionResponse(new NoMoreResponsesException(query.id()));
+        }
+    }
+
+    /**
+     * The live read-only view of the stubs active for the source. The queries of the source are
+     * collected across the groups once and collected again only after the stubs or the groups
+     * change, so the size and the iteration do not walk the groups each time. The values are the
+     * current states of the stubs, so the iteration still peeks every stub it reaches.
+     */
+    private final class ActiveStubs extends AbstractMap<QueryId, Response> {
+        private final SourceId source;
+
+        /**
+         * The queries collected at the revision, replaced as a whole.
+         */
+        private volatile Queries queries = new Queries(-1, Set.of());
+
+        private ActiveStubs(SourceId source) {
+            this.source = source;
+        }
+
+        @Override
+        public Response get(Object key) {
+            if (!(key instanceof QueryId query)) {
+                return null;
+            }
+            final Response stub = stubFor(this.source, query);
+            if (stub == null) {
+                return null;
+            }
+            return peeked(query, stub);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof QueryId query && stubFor(this.source, query) != null;
+        }
+
+        @Override
+        public Set<Entry<QueryId, Response>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<QueryId, Response>> iterator() {
+                    return queries().stream()
+                        .<Entry<QueryId, Response>>map(query -> new SimpleImmutableEntry<>(query, get(query)))
+                        .iterator();
+                }
+
+                @Override
+                public int size() {
+                    return queries().size();
                 }
-            ));
+            };
+        }
+
+        @Override
+        public Set<QueryId> keySet() {
+            return Collections.unmodifiableSet(this.queries());
+        }
+
+        private Set<QueryId> queries() {
+            final long current = revision.get();
+            final Queries cached = this.queries;
+            if (cached.revision == current) {
+                return cached.queries;
+            }
+            final Set<QueryId> result = new HashSet<>();
+            collectQueries(SourceId.DEFAULT_SOURCE, result);
+            for (SourceId level = this.source; level != null; level = groupOf(level)) {
+                collectQueries(level, result);
+            }
+            this.queries = new Queries(current, result);
+            return result;
+        }
+    }
+
+    /**
+     * The queries of the view along with the revision they have been collected at.
+     */
+    private record Queries(long revision, Set<QueryId> queries) {
     }
 
-    record ResponseId(SourceId source, QueryId query) {
+    private record Resolved(SourceId source, Response response) {
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.definitions;
+
+import ewc.utilities.testableio.core.QueryId;
+import ewc.utilities.testableio.core.SourceId;
+import ewc.utilities.testableio.core.StubFacade;
+import ewc.utilities.testableio.responses.DelayedResponse;
+import ewc.utilities.testableio.responses.RawResponse;
+import ewc.utilities.testableio.responses.Response;
+import ewc.utilities.testableio.responses.SequencedResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * I am the stub defined in the properties file. The file has the mandatory {@code query}, the
+ * optional {@code source} (the stub is the default one without it) and either a single response or
+ * a sequence of them. A response is defined by its {@code content}, optional {@code delay} in
+ * milliseconds and optional {@code meta.<name>} entries, prefixed with {@code sequence.<n>.} for
+ * the n-th response of the sequence.
+ *
+ * @since 0.4
+ */
+record StubDefinition(SourceId source, QueryId query, Response response) {
+    private static final Pattern SEQUENCE_CONTENT = Pattern.compile("sequence\\.(\\d+)\\.content");
+
+    static StubDefinition parse(byte[] bytes) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+        final String query = properties.getProperty("query");
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("The query is not defined");
+        }
+        final String source = properties.getProperty("source");
+        return new StubDefinition(
+            source == null ? null : new SourceId(source),
+            new QueryId(query),
+            responseFrom(properties)
+        );
+    }
+
+    void applyTo(StubFacade facade) {
+        if (this.source == null) {
+            facade.setDefaultStubForQuery(this.query, this.response);
+        } else {
+            facade.setStubForQuerySource(this.source, this.query, this.response);
+        }
+    }
+
+    void removeFrom(StubFacade facade) {
+        if (this.source == null) {
+            facade.removeDefaultStubForQuery(this.query);
+        } else {
+            facade.removeStubForQuerySource(this.source, this.query);
+        }
+    }
+
+    boolean sameStubAs(StubDefinition other) {
+        return Objects.equals(this.source, other.source) && this.query.equals(other.query);
+    }
+
+    private static Response responseFrom(Properties properties) {
+        if (properties.containsKey("content")) {
+            return responseAt(properties, "");
+        }
+        final Response[] sequence = properties.stringPropertyNames().stream()
+            .map(SEQUENCE_CONTENT::matcher)
+            .filter(Matcher::matches)
+            .mapToInt(matcher -> Integer.parseInt(matcher.group(1)))
+            .sorted()
+            .mapToObj(position -> responseAt(properties, "sequence.%d.".formatted(position)))
+            .toArray(Response[]::new);
+        if (sequence.length == 0) {
+            throw new IllegalArgumentException("Neither content nor sequence is defined");
+        }
+        return new SequencedResponse(sequence);
+    }
+
+    private static Response responseAt(Properties properties, String prefix) {
+        final String meta = prefix + "meta.";
+        final Map<String, Object> metadata = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(meta)) {
+                metadata.put(name.substring(meta.length()), properties.getProperty(name));
+            }
+        }
+        final Response response = new RawResponse(properties.getProperty(prefix + "content"), metadata);
+        final String delay = properties.getProperty(prefix + "delay");
+        if (delay == null) {
+            return response;
+        }
+        final int millis = Integer.parseInt(delay.trim());
+        if (millis < 0) {
+            throw new IllegalArgumentException(
+                "The %sdelay must not be negative, got %d".formatted(prefix, millis)
+            );
+        }
+        return new DelayedResponse(response, millis);
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.definitions;
+
+import ewc.utilities.testableio.core.StubFacade;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * I am the directory of the stub definition files ({@code *.stub}, see {@link StubDefinition} for
+ * the format), keeping the facade in sync with them.
+ *
+ * <p>Only the files that have actually changed are parsed and applied again, so the stubs of the
+ * unchanged files, including the positions of their sequences, are kept as is. The facade is
+ * updated stub by stub and never locked, so the callers taking the responses are not blocked by
+ * the reload. When several files define the same stub, the one applied last is active, and the
+ * stub stays in the facade until none of the files defines it.</p>
+ *
+ * <p>The failures of the background reloads, like invalid definitions or unreadable files, are
+ * passed to the given handler and kept as the {@link #lastFailure()}; the watching goes on.</p>
+ *
+ * @since 0.4
+ */
+public class StubDirectory implements Closeable {
+    private static final String EXTENSION = ".stub";
+
+    private final Path directory;
+    private final StubFacade facade;
+
+    /**
+     * The definitions applied so far, by their files.
+     */
+    private final Map<Path, Loaded> loaded = new HashMap<>();
+
+    /**
+     * The handler of the failures of the background reloads.
+     */
+    private final Consumer<Exception> failures;
+
+    /**
+     * The failure of the latest background reload, or null if it has succeeded.
+     */
+    private volatile Exception failure;
+    private WatchService watcher;
+
+    public StubDirectory(Path directory, StubFacade facade) {
+        this(directory, facade, failure -> { });
+    }
+
+    public StubDirectory(Path directory, StubFacade facade, Consumer<Exception> failures) {
+        this.directory = directory;
+        this.facade = facade;
+        this.failures = failures;
+    }
+
+    /**
+     * Applies the definitions added, changed or removed since the previous reload. The invalid
+     * definitions are reported after all the valid ones are applied, keeping their previous state.
+     *
+     * @throws IOException If the directory cannot be read.
+     */
+    public synchronized void reload() throws IOException {
+        final Set<Path> present = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + EXTENSION)) {
+            files.forEach(present::add);
+        }
+        final Set<Path> affected = new LinkedHashSet<>(present);
+        affected.addAll(this.loaded.keySet());
+        this.applyAll(affected, true);
+    }
+
+    /**
+     * Loads the definitions and keeps reloading them in the background as the files change. The
+     * directory is watched before the definitions are loaded, so no change is missed in between.
+     *
+     * @return This directory.
+     * @throws IOException If the directory cannot be read or watched.
+     */
+    public synchronized StubDirectory watch() throws IOException {
+        if (this.watcher == null) {
+            final WatchService service = this.directory.getFileSystem().newWatchService();
+            try {
+                this.directory.register(
+                    service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE
+                );
+                this.reload();
+            } catch (IOException | RuntimeException e) {
+                service.close();
+                throw e;
+            }
+            this.watcher = service;
+            final Thread thread = new Thread(() -> this.follow(service), "testable-io-stub-directory");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return this;
+    }
+
+    /**
+     * Returns the failure of the latest background reload.
+     *
+     * @return The failure or empty if the latest background reload has succeeded.
+     */
+    public Optional<Exception> lastFailure() {
+        return Optional.ofNullable(this.failure);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.watcher != null) {
+            this.watcher.close();
+            this.watcher = null;
+        }
+    }
+
+    private void follow(WatchService service) {
+        try {
+            while (true) {
+                final WatchKey key = service.take();
+                boolean overflow = false;
+                final Set<Path> changed = new LinkedHashSet<>();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        overflow = true;
+                    } else if (event.context().toString().endsWith(EXTENSION)) {
+                        changed.add(this.directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+                try {
+                    if (overflow) {
+                        this.reload();
+                    } else {
+                        this.applyChanged(changed);
+                    }
+                    this.failure = null;
+                } catch (IOException | RuntimeException e) {
+                    this.failure = e;
+                    this.report(e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // the directory is closed, nothing to follow anymore
+        }
+    }
+
+    /**
+     * Passes the failure to the handler, keeping the watching alive whatever the handler throws.
+     *
+     * @param failure The failure of the background reload.
+     */
+    private void report(Exception failure) {
+        try {
+            this.failures.accept(failure);
+        } catch (RuntimeException ignored) {
+            // the failure is still available as the last one
+        }
+    }
+
+    private synchronized void applyChanged(Set<Path> changed) {
+        this.applyAll(changed, false);
+    }
+
+    private void applyAll(Set<Path> files, boolean trustAttributes) {
+        final List<Exception> failures = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                this.apply(file, trustAttributes);
+            } catch (IOException | IllegalArgumentException e) {
+                failures.add(e);
+            }
+        }
+        if (!failures.isEmpty()) {
+            final IllegalArgumentException error = new IllegalArgumentException(
+                "%d stub definition(s) could not be applied".formatted(failures.size()), failures.get(0)
+            );
+            failures.stream().skip(1).forEach(error::addSuppressed);
+            throw error;
+        }
+    }
+
+    /**
+     * Applies the current state of the file, parsing it only if its content has changed.
+     *
+     * @param file The definition file.
+     * @param trustAttributes Whether the file with the same size and modification time is considered
+     *  unchanged without reading it.
+     * @throws IOException If the file cannot be read.
+     */
+    private void apply(Path file, boolean trustAttributes) throws IOException {
+        final Loaded previous = this.loaded.get(file);
+        if (!Files.isRegularFile(file)) {
+            if (previous != null) {
+                this.remove(file, previous.definition);
+                this.loaded.remove(file);
+            }
+            return;
+        }
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (trustAttributes && previous != null && previous.hasAttributes(attributes)) {
+            return;
+        }
+        final byte[] bytes = Files.readAllBytes(file);
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        final long checksum = crc.getValue();
+        if (previous != null && previous.checksum == checksum) {
+            this.loaded.put(file, new Loaded(previous.definition, attributes, checksum));
+            return;
+        }
+        final StubDefinition definition;
+        try {
+            definition = StubDefinition.parse(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                "Invalid stub definition %s: %s".formatted(file, e.getMessage()), e
+            );
+        }
+        if (previous != null && !previous.definition.sameStubAs(definition)) {
+            this.remove(file, previous.definition);
+        }
+        definition.applyTo(this.facade);
+        this.loaded.put(file, new Loaded(definition, attributes, checksum));
+    }
+
+    /**
+     * Removes the stub no longer defined by the file. If another file defines the same stub, that
+     * definition is applied again, so the stub stays in the facade as long as any file defines it.
+     *
+     * @param file The file that defined the stub.
+     * @param definition The definition no longer in the file.
+     */
+    private void remove(Path file, StubDefinition definition) {
+        definition.removeFrom(this.facade);
+        this.loaded.entrySet().stream()
+            .filter(entry -> !entry.getKey().equals(file) && entry.getValue().definition.sameStubAs(definition))
+            .findFirst()
+            .ifPresent(entry -> entry.getValue().definition.applyTo(this.facade));
+    }
+
+    private record Loaded(StubDefinition definition, FileTime modified, long size, long checksum) {
+        Loaded(StubDefinition definition, BasicFileAttributes attributes, long checksum) {
+            this(definition, attributes.lastModifiedTime(), attributes.size(), checksum);
+        }
+
+        boolean hasAttributes(BasicFileAttributes attributes) {
+            return this.modified.equals(attributes.lastModifiedTime()) && this.size == attributes.size();
+        }
+    }
+}
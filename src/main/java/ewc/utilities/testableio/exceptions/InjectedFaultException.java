@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.exceptions;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+
+/**
+ * I am the failure injected on purpose. I do not capture the stack trace, so I am cheap to create,
+ * and I am meant to be created once and thrown as many times as needed. I may ask to be thrown
+ * only after the given delay, to emulate the failures like timeouts with the realistic timing.
+ *
+ * @since 0.4
+ */
+public class InjectedFaultException extends RuntimeException {
+    /**
+     * The time the call blocks for before failing.
+     */
+    private final int millis;
+
+    public InjectedFaultException(String message) {
+        this(message, null);
+    }
+
+    public InjectedFaultException(String message, Throwable cause) {
+        this(message, cause, 0);
+    }
+
+    public InjectedFaultException(String message, Throwable cause, int millis) {
+        super(message, cause, false, false);
+        if (millis < 0) {
+            throw new IllegalArgumentException("Delay must not be negative, got %d".formatted(millis));
+        }
+        this.millis = millis;
+    }
+
+    /**
+     * Creates the fault emulating the read timeout, thrown immediately.
+     *
+     * @return The fault caused by the {@link SocketTimeoutException}.
+     */
+    public static InjectedFaultException timeout() {
+        return timeout(0);
+    }
+
+    /**
+     * Creates the fault emulating the read timeout, thrown after blocking for the given time, so
+     * the clients with their own read timeouts see the realistic timing.
+     *
+     * @param millis The read timeout to block for.
+     * @return The fault caused by the {@link SocketTimeoutException}.
+     */
+    public static InjectedFaultException timeout(int millis) {
+        return new InjectedFaultException(
+            "Read timed out",
+            new SocketTimeoutException("Read timed out"),
+            millis
+        );
+    }
+
+    /**
+     * Creates the fault emulating the connection reset by the peer.
+     *
+     * @return The fault caused by the {@link SocketException}.
+     */
+    public static InjectedFaultException connectionReset() {
+        return new InjectedFaultException("Connection reset", new SocketException("Connection reset"));
+    }
+
+    public int delayMillis() {
+        return this.millis;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.junit;
+
+import ewc.utilities.testableio.core.QueryId;
+import ewc.utilities.testableio.core.SourceId;
+import ewc.utilities.testableio.core.StubFacade;
+import ewc.utilities.testableio.core.StubListener;
+import ewc.utilities.testableio.responses.Response;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * I am the facade counting the responses taken from the stubs of the wrapped facade.
+ *
+ * @since 0.4
+ */
+class CountingStubFacade implements StubFacade {
+    private final StubFacade facade;
+    private final Map<Usage, LongAdder> counters = new ConcurrentHashMap<>();
+
+    CountingStubFacade(StubFacade facade) {
+        this.facade = facade;
+    }
+
+    @Override
+    public void setDefaultStubForQuery(QueryId query, Response response) {
+        this.facade.setDefaultStubForQuery(query, response);
+    }
+
+    @Override
+    public void setStubForQuerySource(SourceId source, QueryId query, Response response) {
+        this.facade.setStubForQuerySource(source, query, response);
+    }
+
+    @Override
+    public void removeDefaultStubForQuery(QueryId query) {
+        this.facade.removeDefaultStubForQuery(query);
+    }
+
+    @Override
+    public void removeStubForQuerySource(SourceId source, QueryId query) {
+        this.facade.removeStubForQuerySource(source, query);
+    }
+
+    @Override
+    public void setSourceGroup(SourceId source, SourceId group) {
+        this.facade.setSourceGroup(source, group);
+    }
+
+    @Override
+    public void setConverterForQuery(QueryId query, BiFunction<Object, Map<String, Object>, ?> converter) {
+        this.facade.setConverterForQuery(query, converter);
+    }
+
+    @Override
+    public <T> T next(SourceId source, QueryId query, Class<T> type) {
+        this.counterFor(source, query).increment();
+        return this.facade.next(source, query, type);
+    }
+
+    @Override
+    public <T> List<T> nextBatch(SourceId source, QueryId query, Class<T> type, int count) {
+        this.counterFor(source, query).add(count);
+        return this.facade.nextBatch(source, query, type, count);
+    }
+
+    @Override
+    public <T> void nextBatch(SourceId source, QueryId query, T[] into) {
+        this.counterFor(source, query).add(into.length);
+        this.facade.nextBatch(source, query, into);
+    }
+
+    @Override
+    public Map<QueryId, Response> activeStubsForSource(SourceId source) {
+        return this.facade.activeStubsForSource(source);
+    }
+
+    @Override
+    public Map<QueryId, Response> activeStubsView(SourceId source) {
+        return this.facade.activeStubsView(source);
+    }
+
+    @Override
+    public void resetStubsForSource(SourceId source) {
+        this.facade.resetStubsForSource(source);
+    }
+
+    @Override
+    public void subscribe(StubListener listener) {
+        this.facade.subscribe(listener);
+    }
+
+    @Override
+    public void unsubscribe(StubListener listener) {
+        this.facade.unsubscribe(listener);
+    }
+
+    private LongAdder counterFor(SourceId source, QueryId query) {
+        return this.counters.computeIfAbsent(new Usage(source, query), key -> new LongAdder());
+    }
+
+    /**
+     * Returns the number of requests made so far for every source and query.
+     *
+     * @return The request counts keyed by the query and source identifiers.
+     */
+    Map<String, String> usage() {
+        final Map<String, String> result = new TreeMap<>();
+        this.counters.forEach((usage, count) -> result.put(usage.toString(), count.toString()));
+        return result;
+    }
+
+    private record Usage(SourceId source, QueryId query) {
+        @Override
+        public String toString() {
+            return "%s @ %s".formatted(this.query.id(), this.source.source());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.junit;
+
+import ewc.utilities.testableio.core.StubFacade;
+import java.util.Optional;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * I am the JUnit 5 extension providing every test with its own {@link StubFacade}.
+ *
+ * <p>The baseline selected by {@link StubbedWith} is configured once per JVM and frozen. Each test
+ * gets an overlay on top of it, so the tests may change stubs and advance sequences without
+ * affecting each other, including the tests run with {@code @Execution(CONCURRENT)}. The number of
+ * responses each test has taken from the stubs is published as a report entry after the test.</p>
+ *
+ * <p>The facade is injected into the test methods and their {@code @BeforeEach} and
+ * {@code @AfterEach} methods, which all share the facade of the test. Constructors and
+ * {@code @BeforeAll} methods are resolved for the whole class, so they are refused a facade
+ * rather than sharing one between the tests.</p>
+ *
+ * @since 0.4
+ */
+public class StubFacadeExtension implements ParameterResolver, AfterEachCallback {
+    private static final ExtensionContext.Namespace NAMESPACE =
+        ExtensionContext.Namespace.create(StubFacadeExtension.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameter, ExtensionContext context) {
+        return parameter.getParameter().getType() == StubFacade.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameter, ExtensionContext context) {
+        return facadeFor(context);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        final CountingStubFacade facade =
+            context.getStore(NAMESPACE).get(context.getUniqueId(), CountingStubFacade.class);
+        if (facade != null && !facade.usage().isEmpty()) {
+            context.publishReportEntry(facade.usage());
+        }
+    }
+
+    /**
+     * Returns the facade of the test, keyed by the unique id of the test, so that the lookup falling
+     * back to the class store never finds the facade of another test.
+     *
+     * @param context The context of the test.
+     * @return The facade of the test.
+     * @throws ParameterResolutionException If the context is not the one of a test method.
+     */
+    private static CountingStubFacade facadeFor(ExtensionContext context) {
+        if (context.getTestMethod().isEmpty()) {
+            throw new ParameterResolutionException(
+                "StubFacade can only be injected into test methods and their @BeforeEach or @AfterEach"
+                    + " methods, not into constructors or @BeforeAll methods"
+            );
+        }
+        return context.getStore(NAMESPACE).getOrComputeIfAbsent(
+            context.getUniqueId(),
+            key -> new CountingStubFacade(StubFacade.overlay(baseFor(context))),
+            CountingStubFacade.class
+        );
+    }
+
+    private static StubFacade baseFor(ExtensionContext context) {
+        final Class<? extends StubBaseline> baseline = context.getTestClass()
+            .flatMap(type -> AnnotationSupport.findAnnotation(type, StubbedWith.class))
+            .map(StubbedWith::value)
+            .orElse(StubBaseline.class);
+        return context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(
+            baseline,
+            StubFacadeExtension::configured,
+            StubFacade.class
+        );
+    }
+
+    private static StubFacade configured(Class<? extends StubBaseline> baseline) {
+        final StubFacade facade = StubFacade.basic();
+        instanceOf(baseline).ifPresent(instance -> instance.configure(facade));
+        return facade;
+    }
+
+    private static Optional<StubBaseline> instanceOf(Class<? extends StubBaseline> baseline) {
+        if (baseline.isInterface()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(baseline.getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new ExtensionConfigurationException(
+                "Cannot create the stub baseline %s".formatted(baseline.getName()), e
+            );
+        }
+    }
+}
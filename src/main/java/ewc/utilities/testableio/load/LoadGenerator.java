@@ -0,0 +1,297 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.load;
+
+import ewc.utilities.testableio.core.QueryId;
+import ewc.utilities.testableio.core.SourceId;
+import ewc.utilities.testableio.core.StubFacade;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * I am putting the load on the {@link StubFacade} with the simulated clients, each one with its
+ * own {@link SourceId}, taking the responses for the queries picked by their weights and pausing
+ * for the think time between the requests.
+ *
+ * <p>The clients run on virtual threads when the JVM supports them (Java 21 and later), one
+ * thread per client. To look for the virtual threads pinned by the responses, run with
+ * {@code -Djdk.tracePinnedThreads=short}. On older JVMs the clients are multiplexed on a bounded
+ * pool of {@link #PLATFORM_THREADS} platform threads, each request being a task scheduled after
+ * the think time of the previous one, so millions of clients can still be simulated. The
+ * responses blocking their thread, like the delayed ones, occupy a pool thread for the delay, so
+ * the platform threads cannot keep up the load of many clients taking such responses.</p>
+ *
+ * <p>The allocations are counted on the request threads for the requests only. If the JVM cannot
+ * count them on those threads, the report tells they are unknown.</p>
+ *
+ * @since 0.4
+ */
+public class LoadGenerator {
+    /**
+     * The number of the platform threads the clients are multiplexed on without virtual threads.
+     */
+    public static final int PLATFORM_THREADS = Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+
+    private final StubFacade facade;
+    private final QueryId[] queries;
+
+    /**
+     * The cumulative weights of the queries, for the weighted random choice.
+     */
+    private final long[] weights;
+    private final int clients;
+    private final Duration think;
+
+    /**
+     * Primary constructor.
+     *
+     * @param facade The facade to put the load on.
+     * @param mix The positive weights of the queries the clients make.
+     * @param clients The number of the simulated clients.
+     * @param think The pause every client makes after each request.
+     */
+    public LoadGenerator(StubFacade facade, Map<QueryId, Integer> mix, int clients, Duration think) {
+        if (mix.isEmpty() || mix.values().stream().anyMatch(weight -> weight <= 0)) {
+            throw new IllegalArgumentException(
+                "The query mix must have positive weights, got %s".formatted(mix)
+            );
+        }
+        if (clients <= 0) {
+            throw new IllegalArgumentException(
+                "The number of clients must be positive, got %d".formatted(clients)
+            );
+        }
+        this.facade = facade;
+        this.queries = mix.keySet().toArray(QueryId[]::new);
+        this.weights = new long[this.queries.length];
+        long total = 0;
+        for (int i = 0; i < this.queries.length; i++) {
+            total += mix.get(this.queries[i]);
+            this.weights[i] = total;
+        }
+        this.clients = clients;
+        this.think = think;
+    }
+
+    /**
+     * Runs the clients for the given duration and waits for them to finish their last requests.
+     *
+     * @param duration The duration of the run.
+     * @return The report on the run.
+     * @throws InterruptedException If interrupted while waiting for the clients.
+     */
+    public LoadReport run(Duration duration) throws InterruptedException {
+        final Measurements measurements = new Measurements();
+        final ExecutorService executor = virtualThreadExecutor();
+        final long start = System.nanoTime();
+        final long deadline = start + duration.toNanos();
+        if (executor == null) {
+            this.multiplex(measurements, deadline);
+        } else {
+            this.spread(executor, measurements, deadline);
+        }
+        final long elapsed = System.nanoTime() - start;
+        final Map<String, Long> failed = new TreeMap<>();
+        measurements.failures.forEach((type, count) -> failed.put(type, count.sum()));
+        final LatencyHistogram latencies = measurements.latencies;
+        return new LoadReport(
+            this.clients,
+            executor != null,
+            Duration.ofNanos(elapsed),
+            latencies.count(),
+            failed,
+            Duration.ofNanos(latencies.percentile(50)),
+            Duration.ofNanos(latencies.percentile(90)),
+            Duration.ofNanos(latencies.percentile(99)),
+            Duration.ofNanos(latencies.percentile(99.9)),
+            Duration.ofNanos(latencies.max()),
+            measurements.counted.get() ? measurements.allocated.sum() : -1
+        );
+    }
+
+    /**
+     * Runs every client on its own thread of the executor, pausing the thread for the think time.
+     *
+     * @param executor The executor starting a new thread for every task.
+     * @param measurements The measurements of the run.
+     * @param deadline The time the clients stop at.
+     * @throws InterruptedException If interrupted while waiting for the clients.
+     */
+    private void spread(ExecutorService executor, Measurements measurements, long deadline)
+        throws InterruptedException {
+        final long pause = this.think.toNanos();
+        for (int client = 0; client < this.clients; client++) {
+            final SourceId source = new SourceId("client-%d".formatted(client));
+            executor.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        this.request(source, measurements);
+                        if (pause > 0) {
+                            TimeUnit.NANOSECONDS.sleep(pause);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs the clients on the bounded pool of platform threads, scheduling every request of a
+     * client after the think time of its previous request.
+     *
+     * @param measurements The measurements of the run.
+     * @param deadline The time the clients stop at.
+     * @throws InterruptedException If interrupted while waiting for the clients.
+     */
+    private void multiplex(Measurements measurements, long deadline) throws InterruptedException {
+        final ScheduledExecutorService executor =
+            Executors.newScheduledThreadPool(Math.min(this.clients, PLATFORM_THREADS));
+        final CountDownLatch finished = new CountDownLatch(this.clients);
+        final long pause = this.think.toNanos();
+        try {
+            for (int client = 0; client < this.clients; client++) {
+                final SourceId source = new SourceId("client-%d".formatted(client));
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (System.nanoTime() >= deadline) {
+                            finished.countDown();
+                            return;
+                        }
+                        try {
+                            LoadGenerator.this.request(source, measurements);
+                        } finally {
+                            if (pause > 0) {
+                                executor.schedule(this, pause, TimeUnit.NANOSECONDS);
+                            } else {
+                                executor.execute(this);
+                            }
+                        }
+                    }
+                });
+            }
+            finished.await();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Takes the response for the randomly picked query, measuring the latency and allocations. The
+     * errors, like the failed assertions of a converter, count as the failures too.
+     *
+     * @param source The source of the client.
+     * @param measurements The measurements of the run.
+     */
+    private void request(SourceId source, Measurements measurements) {
+        final QueryId query = this.nextQuery();
+        final long allocatedBefore = allocatedBytes();
+        final long started = System.nanoTime();
+        try {
+            this.facade.next(source, query, Object.class);
+        } catch (RuntimeException | Error e) {
+            measurements.failures.computeIfAbsent(e.getClass().getSimpleName(), type -> new LongAdder())
+                .increment();
+        }
+        measurements.latencies.record(System.nanoTime() - started);
+        final long allocatedAfter = allocatedBytes();
+        if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+            measurements.allocated.add(allocatedAfter - allocatedBefore);
+            if (!measurements.counted.get()) {
+                measurements.counted.set(true);
+            }
+        }
+    }
+
+    private QueryId nextQuery() {
+        if (this.queries.length == 1) {
+            return this.queries[0];
+        }
+        final long pick = ThreadLocalRandom.current().nextLong(this.weights[this.weights.length - 1]);
+        final int found = Arrays.binarySearch(this.weights, pick + 1);
+        return this.queries[found >= 0 ? found : -found - 1];
+    }
+
+    /**
+     * Creates the executor running each task on a new virtual thread, if the JVM supports them.
+     *
+     * @return The executor or null on the JVMs without virtual threads.
+     */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread so far.
+     *
+     * @return The allocated bytes or -1 if the JVM does not count them on this thread.
+     */
+    private static long allocatedBytes() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean counting
+            && counting.isThreadAllocatedMemorySupported()
+            && counting.isThreadAllocatedMemoryEnabled()) {
+            return counting.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * The measurements shared by the clients of a run.
+     */
+    private static final class Measurements {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        private final LongAdder allocated = new LongAdder();
+
+        /**
+         * Whether the allocations of at least one request have been counted.
+         */
+        private final AtomicBoolean counted = new AtomicBoolean();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.load;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * I am the outcome of the load run.
+ *
+ * @param clients The number of the simulated clients.
+ * @param virtualThreads Whether the clients have been run on virtual threads.
+ * @param elapsed The duration of the run.
+ * @param requests The number of the requests made, both successful and failed.
+ * @param failures The number of the failed requests by the simple name of the exception class.
+ * @param p50 The median latency.
+ * @param p90 The 90th percentile of the latency.
+ * @param p99 The 99th percentile of the latency.
+ * @param p999 The 99.9th percentile of the latency.
+ * @param max The maximum latency.
+ * @param allocatedBytes The bytes allocated by the requests during the run, or -1 if unknown.
+ * @since 0.4
+ */
+public record LoadReport(
+    int clients,
+    boolean virtualThreads,
+    Duration elapsed,
+    long requests,
+    Map<String, Long> failures,
+    Duration p50,
+    Duration p90,
+    Duration p99,
+    Duration p999,
+    Duration max,
+    long allocatedBytes
+) {
+    /**
+     * Returns the number of requests per second.
+     *
+     * @return The throughput.
+     */
+    public double throughput() {
+        return this.requests / seconds(this.elapsed);
+    }
+
+    /**
+     * Returns the bytes allocated per second, or -1 if the allocations are unknown.
+     *
+     * @return The allocation rate.
+     */
+    public double allocationRate() {
+        if (this.allocatedBytes < 0) {
+            return -1;
+        }
+        return this.allocatedBytes / seconds(this.elapsed);
+    }
+
+    @Override
+    public String toString() {
+        return """
+            %d clients on %s threads for %d ms: %d requests (%.0f/s), failures %s
+            latency p50 %d us, p90 %d us, p99 %d us, p99.9 %d us, max %d us
+            allocated %d bytes (%.0f bytes/s)""".formatted(
+            this.clients,
+            this.virtualThreads ? "virtual" : "platform",
+            this.elapsed.toMillis(),
+            this.requests,
+            this.throughput(),
+            this.failures,
+            this.p50.toNanos() / 1000,
+            this.p90.toNanos() / 1000,
+            this.p99.toNanos() / 1000,
+            this.p999.toNanos() / 1000,
+            this.max.toNanos() / 1000,
+            this.allocatedBytes,
+            this.allocationRate()
+        );
+    }
+
+    private static double seconds(Duration duration) {
+        return Math.max(1, duration.toNanos()) / 1e9;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.responses;
+
+/**
+ * I am the index handing out the positions from the per-thread blocks, claimed from the shared
+ * index with a single atomic update per block, so the threads mostly advance without contention.
+ *
+ * @since 0.4
+ */
+final class BlockIndex implements SequenceIndex {
+    /**
+     * The index the blocks are claimed from.
+     */
+    private final SequenceIndex shared;
+
+    /**
+     * The number of positions claimed at once.
+     */
+    private final int size;
+
+    /**
+     * The unserved part of the block of the current thread, as the next and the end positions.
+     */
+    private final ThreadLocal<int[]> block = ThreadLocal.withInitial(() -> new int[2]);
+
+    BlockIndex(SequenceIndex shared, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The block size must be positive, got %d".formatted(size));
+        }
+        this.shared = shared;
+        this.size = size;
+    }
+
+    /**
+     * Returns the next position of the current thread's block or, when the block is used up, the
+     * start of the next block to be claimed. The other threads may hand out lower positions later.
+     *
+     * @return The approximate current index.
+     */
+    @Override
+    public int currentValue() {
+        final int[] local = this.block.get();
+        if (local[0] < local[1]) {
+            return local[0];
+        }
+        return this.shared.currentValue();
+    }
+
+    @Override
+    public int getAndIncrement() {
+        final int[] local = this.block.get();
+        if (local[0] == local[1]) {
+            local[0] = this.shared.getAndAdd(this.size);
+            local[1] = local[0] + this.size;
+        }
+        final int result = local[0];
+        local[0] = result + 1;
+        return result;
+    }
+
+    /**
+     * Takes the positions from the current thread's block if it has enough of them left, or
+     * claims them from the shared index directly otherwise, leaving the block intact.
+     *
+     * @param delta The number of indices to reserve.
+     * @return The first of the reserved indices.
+     */
+    @Override
+    public int getAndAdd(int delta) {
+        final int[] local = this.block.get();
+        if (local[1] - local[0] < delta) {
+            return this.shared.getAndAdd(delta);
+        }
+        final int result = local[0];
+        local[0] = result + delta;
+        return result;
+    }
+
+    @Override
+    public int getAndAddWithin(int delta, int limit) {
+        final int[] local = this.block.get();
+        if (local[1] - local[0] < delta) {
+            return this.shared.getAndAddWithin(delta, limit);
+        }
+        if (local[0] > limit - delta) {
+            return -1;
+        }
+        final int result = local[0];
+        local[0] = result + delta;
+        return result;
+    }
+}
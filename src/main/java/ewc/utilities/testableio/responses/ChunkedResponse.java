@@ -0,0 +1,255 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.responses;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import lombok.NonNull;
+
+/**
+ * I am the response with the body streamed in chunks, like a large download or a stream of
+ * server-sent events. The content passed to the converter is the {@link Flow.Publisher} of the
+ * chunks. Each subscriber gets all the chunks from the beginning, no faster than it requests them
+ * and no sooner than the given delay after the previous chunk.
+ *
+ * @since 0.4
+ */
+public class ChunkedResponse implements Response {
+    /**
+     * The default scheduler delivering the chunks to the subscribers.
+     */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        task -> {
+            final Thread thread = new Thread(task, "testable-io-chunks");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
+    private final Chunks chunks;
+
+    /**
+     * The delay before each chunk, in milliseconds.
+     */
+    private final int millis;
+    private final Map<String, Object> metadata;
+    private final ScheduledExecutorService scheduler;
+    private final Flow.Publisher<ByteBuffer> publisher;
+
+    /**
+     * Primary constructor.
+     *
+     * @param chunks The chunks of the body.
+     * @param millis The delay before each chunk, in milliseconds.
+     * @param metadata The metadata associated with the response.
+     * @param scheduler The scheduler to deliver the chunks on.
+     */
+    public ChunkedResponse(
+        @NonNull final Chunks chunks,
+        final int millis,
+        @NonNull final Map<String, Object> metadata,
+        @NonNull final ScheduledExecutorService scheduler
+    ) {
+        this.chunks = chunks;
+        this.millis = millis;
+        this.metadata = metadata;
+        this.scheduler = scheduler;
+        this.publisher = subscriber -> {
+            final ChunkSubscription subscription = new ChunkSubscription(subscriber);
+            subscriber.onSubscribe(subscription);
+        };
+    }
+
+    public ChunkedResponse(Chunks chunks, int millis, Map<String, Object> metadata) {
+        this(chunks, millis, metadata, SCHEDULER);
+    }
+
+    public ChunkedResponse(Chunks chunks, int millis) {
+        this(chunks, millis, Map.of());
+    }
+
+    @Override
+    public <R> R next(BiFunction<Object, Map<String, Object>, R> transformer) {
+        return transformer.apply(this.publisher, this.metadata);
+    }
+
+    @Override
+    public Object peekContent() {
+        return this.publisher;
+    }
+
+    public int chunkDelayMillis() {
+        return this.millis;
+    }
+
+    /**
+     * The subscription delivering the chunks on the scheduler, one task at a time.
+     */
+    private final class ChunkSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+
+        /**
+         * Whether the delivery task is either running or scheduled.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+
+        /**
+         * The state below is only accessed by the delivery task.
+         */
+        private Chunks.Cursor cursor;
+        private ByteBuffer pending;
+        private long readyAt;
+
+        private ChunkSubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+            this.readyAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.failure = new IllegalArgumentException(
+                    "Non-positive number of chunks requested: %d".formatted(n)
+                );
+            } else {
+                this.demand.accumulateAndGet(n, ChunkSubscription::cappedSum);
+            }
+            this.schedule();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.schedule();
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.deliver();
+            } catch (IOException | RuntimeException e) {
+                this.failure = e;
+                this.finish();
+            }
+        }
+
+        private void schedule() {
+            if (this.scheduled.compareAndSet(false, true)) {
+                scheduler.execute(this);
+            }
+        }
+
+        private void deliver() throws IOException {
+            while (!this.finish()) {
+                if (this.cursor == null) {
+                    this.cursor = chunks.open();
+                }
+                if (this.pending == null) {
+                    this.pending = this.cursor.next();
+                    if (this.pending == null) {
+                        this.cancelled = true;
+                        this.finish();
+                        this.subscriber.onComplete();
+                        return;
+                    }
+                }
+                if (this.demand.get() == 0) {
+                    this.scheduled.set(false);
+                    if (!this.signalled() || !this.scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                final long wait = this.readyAt - System.nanoTime();
+                if (wait > 0) {
+                    scheduler.schedule(this, wait, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                final ByteBuffer chunk = this.pending;
+                this.pending = null;
+                this.demand.decrementAndGet();
+                this.subscriber.onNext(chunk);
+                this.readyAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            }
+        }
+
+        /**
+         * Checks whether the delivery task has anything to do. It is checked again after the task
+         * goes idle, since the signals arriving just before that fail to schedule it.
+         *
+         * @return Whether there is demand, a cancellation or a failure to handle.
+         */
+        private boolean signalled() {
+            return this.demand.get() > 0 || this.cancelled || this.failure != null;
+        }
+
+        private static long cappedSum(long current, long more) {
+            final long sum = current + more;
+            if (sum < 0) {
+                return Long.MAX_VALUE;
+            }
+            return sum;
+        }
+
+        /**
+         * Releases the cursor if the subscription is over, signalling the failure if there is one.
+         *
+         * @return Whether the subscription is over.
+         */
+        private boolean finish() {
+            final Throwable error = this.failure;
+            if (!this.cancelled && error == null) {
+                return false;
+            }
+            this.cancelled = true;
+            this.pending = null;
+            if (this.cursor != null) {
+                try {
+                    this.cursor.close();
+                } catch (IOException ignored) {
+                    // the chunks are not needed anymore
+                }
+                this.cursor = null;
+            }
+            if (error != null) {
+                this.failure = null;
+                this.subscriber.onError(error);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.responses;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * I am the source of the body chunks streamed by the {@link ChunkedResponse}. Every subscriber
+ * reads the chunks through its own {@link Cursor}, so only the chunk being delivered is kept in
+ * memory, whatever the size of the whole body is.
+ *
+ * @since 0.4
+ */
+public interface Chunks {
+    /**
+     * Starts reading the chunks from the beginning.
+     *
+     * @return The cursor over the chunks.
+     * @throws IOException If the chunks cannot be read.
+     */
+    Cursor open() throws IOException;
+
+    /**
+     * Splits the in-memory body into the chunks of the given size.
+     *
+     * @param body The whole body.
+     * @param size The size of each chunk but the last one.
+     * @return The chunks of the body.
+     */
+    static Chunks of(byte[] body, int size) {
+        requirePositiveSize(size);
+        return () -> new Cursor() {
+            private int offset;
+
+            @Override
+            public ByteBuffer next() {
+                if (this.offset >= body.length) {
+                    return null;
+                }
+                final int length = Math.min(size, body.length - this.offset);
+                final ByteBuffer chunk = ByteBuffer.wrap(body, this.offset, length).slice();
+                this.offset += length;
+                return chunk.asReadOnlyBuffer();
+            }
+        };
+    }
+
+    /**
+     * Repeats the same chunk, e.g. to simulate a huge body without allocating it.
+     *
+     * @param chunk The content of every chunk.
+     * @param times The number of chunks.
+     * @return The repeated chunks.
+     */
+    static Chunks repeated(byte[] chunk, long times) {
+        if (times < 0) {
+            throw new IllegalArgumentException("Number of chunks must not be negative, got %d".formatted(times));
+        }
+        final ByteBuffer content = ByteBuffer.wrap(chunk).asReadOnlyBuffer();
+        return () -> new Cursor() {
+            private long remaining = times;
+
+            @Override
+            public ByteBuffer next() {
+                if (this.remaining <= 0) {
+                    return null;
+                }
+                this.remaining--;
+                return content.duplicate();
+            }
+        };
+    }
+
+    /**
+     * Reads the file in the chunks of the given size.
+     *
+     * @param file The file with the body.
+     * @param size The size of each chunk but the last one.
+     * @return The chunks of the file.
+     */
+    static Chunks ofFile(Path file, int size) {
+        requirePositiveSize(size);
+        return () -> {
+            final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            return new Cursor() {
+                @Override
+                public ByteBuffer next() throws IOException {
+                    final ByteBuffer chunk = ByteBuffer.allocate(size);
+                    while (chunk.hasRemaining() && channel.read(chunk) >= 0) {
+                        continue;
+                    }
+                    if (chunk.position() == 0) {
+                        return null;
+                    }
+                    return chunk.flip();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    channel.close();
+                }
+            };
+        };
+    }
+
+    private static void requirePositiveSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive, got %d".formatted(size));
+        }
+    }
+
+    /**
+     * I am reading the chunks one by one, on one thread at a time.
+     */
+    interface Cursor extends Closeable {
+        /**
+         * Reads the next chunk.
+         *
+         * @return The next chunk or null if there are no more chunks.
+         * @throws IOException If the chunk cannot be read.
+         */
+        ByteBuffer next() throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+}
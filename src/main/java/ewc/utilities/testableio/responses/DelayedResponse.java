@@ -44,11 +44,59 @@ public class DelayedResponse implements Response {
         return this.response.next(transformer);
     }
 
+    /**
+     * Waits for the delay of every response in the batch at once and takes the batch from the
+     * wrapped response, so a wrapped sequence reserves the whole batch with a single update.
+     *
+     * @param transformer The converter of the responses.
+     * @param into The array to fill.
+     * @param <R> The type of the converted responses.
+     */
+    @Override
+    @SneakyThrows
+    public <R> void nextBatch(BiFunction<Object, Map<String, Object>, R> transformer, R[] into) {
+        Thread.sleep((long) this.millis * into.length);
+        this.response.nextBatch(transformer, into);
+    }
+
+    /**
+     * Returns this response while the wrapped one stays the same, and the delayed current state of
+     * the wrapped response once it changes, like the current element of a sequence.
+     *
+     * @return The current state of the response.
+     */
+    @Override
+    public Response peek() {
+        final Response current = this.response.peek();
+        if (current == this.response) {
+            return this;
+        }
+        return new DelayedResponse(current, this.millis);
+    }
+
     @Override
     public Object peekContent() {
         return this.response.peekContent();
     }
 
+    @Override
+    public Response indexedBy(SequenceIndex index) {
+        final Response indexed = this.response.indexedBy(index);
+        if (indexed == this.response) {
+            return this;
+        }
+        return new DelayedResponse(indexed, this.millis);
+    }
+
+    @Override
+    public Response forked() {
+        final Response fork = this.response.forked();
+        if (fork == this.response) {
+            return this;
+        }
+        return new DelayedResponse(fork, this.millis);
+    }
+
     public int delayMillis() {
         return this.millis;
     }
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.responses;
+
+import ewc.utilities.testableio.exceptions.InjectedFaultException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import lombok.SneakyThrows;
+
+/**
+ * I am the response failing at the given rate with one of the preallocated faults, and returning
+ * the wrapped response otherwise. The faults are rethrown as is, so the stackless ones, like
+ * {@link InjectedFaultException}, make the failure as cheap as the successful call. The faults
+ * with a delay, like {@link InjectedFaultException#timeout(int)}, are thrown after blocking for it.
+ *
+ * @since 0.4
+ */
+public class FaultInjectingResponse implements Response {
+    private final Response response;
+
+    /**
+     * The probability of the failure, from 0 (never fails) to 1 (always fails).
+     */
+    private final double rate;
+
+    /**
+     * The pool of the faults to choose from uniformly.
+     */
+    private final RuntimeException[] faults;
+
+    public FaultInjectingResponse(Response response, double rate, RuntimeException... faults) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException(
+                "Failure rate must be between 0 and 1, got %s".formatted(rate)
+            );
+        }
+        if (faults.length == 0) {
+            throw new IllegalArgumentException("At least one fault must be provided");
+        }
+        this.response = response;
+        this.rate = rate;
+        this.faults = faults.clone();
+    }
+
+    @Override
+    public <R> R next(BiFunction<Object, Map<String, Object>, R> transformer) {
+        this.maybeFail(1);
+        return this.response.next(transformer);
+    }
+
+    /**
+     * Fails the whole batch if any of its responses fails, before taking anything from the wrapped
+     * response, and takes the batch from the wrapped response otherwise, so a wrapped sequence
+     * reserves the whole batch with a single update.
+     *
+     * @param transformer The converter of the responses.
+     * @param into The array to fill.
+     * @param <R> The type of the converted responses.
+     */
+    @Override
+    public <R> void nextBatch(BiFunction<Object, Map<String, Object>, R> transformer, R[] into) {
+        this.maybeFail(into.length);
+        this.response.nextBatch(transformer, into);
+    }
+
+    /**
+     * Returns this response while the wrapped one stays the same, and the current state of the
+     * wrapped response failing at the same rate once it changes, like the current element of a
+     * sequence.
+     *
+     * @return The current state of the response.
+     */
+    @Override
+    public Response peek() {
+        final Response current = this.response.peek();
+        if (current == this.response) {
+            return this;
+        }
+        return new FaultInjectingResponse(current, this.rate, this.faults);
+    }
+
+    @Override
+    public Object peekContent() {
+        return this.response.peekContent();
+    }
+
+    @Override
+    public Response indexedBy(SequenceIndex index) {
+        final Response indexed = this.response.indexedBy(index);
+        if (indexed == this.response) {
+            return this;
+        }
+        return new FaultInjectingResponse(indexed, this.rate, this.faults);
+    }
+
+    @Override
+    public Response forked() {
+        final Response fork = this.response.forked();
+        if (fork == this.response) {
+            return this;
+        }
+        return new FaultInjectingResponse(fork, this.rate, this.faults);
+    }
+
+    /**
+     * Throws one of the faults if any of the given number of calls fails at the configured rate.
+     *
+     * @param calls The number of calls.
+     */
+    @SneakyThrows
+    private void maybeFail(int calls) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int call = 0; call < calls; call++) {
+            if (random.nextDouble() < this.rate) {
+                final RuntimeException fault =
+                    this.faults[this.faults.length == 1 ? 0 : random.nextInt(this.faults.length)];
+                if (fault instanceof InjectedFaultException injected && injected.delayMillis() > 0) {
+                    Thread.sleep(injected.delayMillis());
+                }
+                throw fault;
+            }
+        }
+    }
+
+    public double failureRate() {
+        return this.rate;
+    }
+}
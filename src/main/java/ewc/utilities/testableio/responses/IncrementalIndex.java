@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.responses;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class IncrementalIndex implements SequenceIndex {
+    /**
+     * The thread-safe counter providing the index of the next response to be returned.
+     */
+    private final AtomicInteger index = new AtomicInteger(0);
+
+    @Override
+    public int currentValue() {
+        return this.index.intValue();
+    }
+
+    @Override
+    public int getAndIncrement() {
+        return this.index.getAndIncrement();
+    }
+
+    @Override
+    public int getAndAdd(int delta) {
+        return this.index.getAndAdd(delta);
+    }
+
+    @Override
+    public int getAndAddWithin(int delta, int limit) {
+        int current;
+        do {
+            current = this.index.get();
+            if (current > limit - delta) {
+                return -1;
+            }
+        } while (!this.index.compareAndSet(current, current + delta));
+        return current;
+    }
+}
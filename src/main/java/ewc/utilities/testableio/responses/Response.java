@@ -30,10 +30,46 @@ import java.util.function.BiFunction;
 public interface Response {
     <R> R next(BiFunction<Object, Map<String, Object>, R> transformer);
 
+    /**
+     * Fills the array with the next responses, like calling {@link #next(BiFunction)} for every
+     * element of the array would. The sequences reserve the whole batch at once instead, so if a
+     * response in the middle of the batch throws, the responses reserved after it are consumed
+     * too, while the separate calls would still return them.
+     *
+     * @param transformer The converter of the responses.
+     * @param into The array to fill.
+     * @param <R> The type of the converted responses.
+     */
+    default <R> void nextBatch(BiFunction<Object, Map<String, Object>, R> transformer, R[] into) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] = this.next(transformer);
+        }
+    }
+
     default Response peek() {
         return this;
     }
 
     Object peekContent();
 
+    /**
+     * Returns a response with the same content but its own independent state, so that advancing
+     * the copy does not advance this one. Stateless responses return themselves.
+     *
+     * @return The independent copy of this response.
+     */
+    default Response forked() {
+        return this;
+    }
+
+    /**
+     * Returns a response advancing its sequence by the given index instead of its own one.
+     * Responses without a sequence return themselves.
+     *
+     * @param index The index to use.
+     * @return The response using the index.
+     */
+    default Response indexedBy(SequenceIndex index) {
+        return this;
+    }
 }
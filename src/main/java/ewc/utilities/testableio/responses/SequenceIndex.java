@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.responses;
+
+/**
+ * I am the cursor of the {@link SequencedResponse}, providing the index of the response to return.
+ *
+ * @since 0.4
+ */
+public interface SequenceIndex {
+    /**
+     * Returns the index of the response to be returned next, without advancing.
+     *
+     * @return The current index.
+     */
+    int currentValue();
+
+    /**
+     * Advances the cursor atomically.
+     *
+     * @return The index before the advance.
+     */
+    int getAndIncrement();
+
+    /**
+     * Reserves the given number of indices with a single atomic update.
+     *
+     * @param delta The number of indices to reserve.
+     * @return The first of the reserved indices.
+     */
+    int getAndAdd(int delta);
+
+    /**
+     * Reserves the given number of indices with a single atomic update, but only if all of them
+     * are below the limit.
+     *
+     * @param delta The number of indices to reserve.
+     * @param limit The index the reserved ones must stay below.
+     * @return The first of the reserved indices, or -1 if nothing has been reserved.
+     */
+    int getAndAddWithin(int delta, int limit);
+
+    /**
+     * Creates the in-memory index starting from zero.
+     *
+     * @return The new index.
+     */
+    static SequenceIndex local() {
+        return new IncrementalIndex();
+    }
+
+    /**
+     * Creates the index handing out the positions of the given index in per-thread blocks, so
+     * the threads touch the shared index once per block instead of once per position.
+     *
+     * <p>The positions are unique, but no longer ordered across the threads: a thread may take a
+     * later position before another thread takes an earlier one. The positions left in the block
+     * of a thread are served only to that thread, so the other threads may run past the end of
+     * the sequence while some of its positions are still unserved. The {@link #currentValue()}
+     * is only exact for the calling thread's block.</p>
+     *
+     * @param shared The index to claim the blocks from.
+     * @param size The number of positions claimed at once.
+     * @return The new index.
+     */
+    static SequenceIndex blocks(SequenceIndex shared, int size) {
+        return new BlockIndex(shared, size);
+    }
+}
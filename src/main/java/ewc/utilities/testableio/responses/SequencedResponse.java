@@ -24,24 +24,60 @@
 
 package ewc.utilities.testableio.responses;
 
+import java.util.Arrays;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 
 public class SequencedResponse implements Response {
     /**
      * The counter providing the index of the next response to be returned.
      */
-    private final IncrementalIndex index;
+    private final SequenceIndex index;
 
     /**
      * The array of responses to be returned sequentially.
      */
     private final Response[] responses;
 
+    /**
+     * The number of positions each thread claims at once, 1 for the strict order.
+     */
+    private final int block;
+
     public SequencedResponse(Response... responses) {
+        this(SequenceIndex.local(), responses);
+    }
+
+    public SequencedResponse(SequenceIndex index, Response... responses) {
+        this(index, 1, responses);
+    }
+
+    private SequencedResponse(SequenceIndex index, int block, Response[] responses) {
         this.responses = responses;
-        this.index = new IncrementalIndex();
+        this.block = block;
+        this.index = block == 1 ? index : SequenceIndex.blocks(index, block);
+    }
+
+    /**
+     * Creates the sequence with the relaxed order for the hot stubs shared by many threads. Every
+     * thread claims the positions in blocks of the given size with a single atomic update, so the
+     * threads do not contend on the index for every response.
+     *
+     * <p>Every response is still returned at most once, but the order is only kept within a
+     * thread: the responses go to the threads in blocks, and a thread may get a later block
+     * before another thread is done with an earlier one. The responses left in the block of a
+     * thread are only returned to that thread, so the other threads may get the
+     * {@code NoMoreResponsesException} before all the responses have been returned; keep the
+     * block size well below the length of the sequence. The {@link #peek()} reports the next
+     * response of the calling thread. Blocks are kept per thread, so they suit long-lived
+     * callers rather than a new virtual thread per call.</p>
+     *
+     * @param block The number of positions each thread claims at once.
+     * @param responses The responses to be returned.
+     * @return The sequence with the relaxed order.
+     */
+    public static SequencedResponse relaxed(int block, Response... responses) {
+        return new SequencedResponse(SequenceIndex.local(), block, responses);
     }
 
     @Override
@@ -49,6 +85,29 @@ public class SequencedResponse implements Response {
         return this.responses[this.index.getAndIncrement()].next(transformer);
     }
 
+    /**
+     * Reserves the positions for the whole batch with a single update of the index. If fewer
+     * responses are left than the batch needs, nothing is reserved, so the remaining responses are
+     * still returned by the later calls, and the exhaustion is signalled right away. If one of the
+     * reserved responses throws, the rest of the batch is consumed all the same.
+     *
+     * @param transformer The converter of the responses.
+     * @param into The array to fill.
+     * @param <R> The type of the converted responses.
+     */
+    @Override
+    public <R> void nextBatch(BiFunction<Object, Map<String, Object>, R> transformer, R[] into) {
+        final int start = this.index.getAndAddWithin(into.length, this.responses.length);
+        if (start < 0) {
+            throw new ArrayIndexOutOfBoundsException(
+                "Fewer than %d responses left in the sequence".formatted(into.length)
+            );
+        }
+        for (int i = 0; i < into.length; i++) {
+            into[i] = this.responses[start + i].next(transformer);
+        }
+    }
+
     @Override
     public Response peek() {
         return this.responses[this.index.currentValue()].peek();
@@ -59,19 +118,29 @@ public class SequencedResponse implements Response {
         return this.peek().peekContent();
     }
 
-    private static final class IncrementalIndex {
-        /**
-         * The thread-safe counter providing the index of the next response to be returned.
-         */
-        private final AtomicInteger index = new AtomicInteger(0);
-
-        public int currentValue() {
-            return this.index.intValue();
-        }
-
-        public int getAndIncrement() {
-            return this.index.getAndIncrement();
-        }
+    /**
+     * Returns a new sequence of the forked responses in the same order mode, starting from the
+     * first one.
+     *
+     * @return The sequence with its own cursor.
+     */
+    @Override
+    public Response forked() {
+        return new SequencedResponse(
+            SequenceIndex.local(),
+            this.block,
+            Arrays.stream(this.responses).map(Response::forked).toArray(Response[]::new)
+        );
+    }
 
+    /**
+     * Returns the same sequence of responses in the same order mode, advanced by the given index.
+     *
+     * @param index The index to use.
+     * @return The sequence sharing the responses with this one.
+     */
+    @Override
+    public Response indexedBy(SequenceIndex index) {
+        return new SequencedResponse(index, this.block, this.responses);
     }
 }
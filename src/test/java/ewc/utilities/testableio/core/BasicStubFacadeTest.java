@@ -149,6 +149,83 @@ class BasicStubFacadeTest {
             .isEqualTo(new ResponseId("default response"));
     }
 
+    @Test
+    void shouldReturnTheBatchOfSequencedResponses() {
+        target.setDefaultStubForQuery(TEST_URL, new SequencedResponse(
+            new RawResponse("test response 1"),
+            new RawResponse("test response 2"),
+            new RawResponse("test response 3")
+        ));
+        assertThat(target.nextBatch(anySource, TEST_URL, String.class, 2))
+            .containsExactly("test response 1 {}", "test response 2 {}");
+        assertThat(target.next(anySource, TEST_URL, String.class))
+            .isEqualTo("test response 3 {}");
+    }
+
+    @Test
+    void shouldFillTheArrayWithTheSameResponse_whenSetAsSingleObject() {
+        target.setDefaultStubForQuery(TEST_URL, new RawResponse("test response"));
+        final String[] batch = new String[3];
+        target.nextBatch(anySource, TEST_URL, batch);
+        assertThat(batch).containsOnly("test response {}");
+    }
+
+    @Test
+    void shouldThrow_whenTheBatchExceedsThePredefinedSequence() {
+        target.setDefaultStubForQuery(TEST_URL, new SequencedResponse(
+            new RawResponse("test response 1"),
+            new RawResponse("test response 2")
+        ));
+        assertThatExceptionOfType(NoMoreResponsesException.class)
+            .isThrownBy(() -> target.nextBatch(anySource, TEST_URL, String.class, 3))
+            .withMessageContaining("No more responses available for query: %s".formatted(TEST_URL.id()));
+        assertThatThrownBy(() -> target.nextBatch(anySource, anyQuery, String.class, 3))
+            .isInstanceOf(UnconfiguredStubException.class);
+    }
+
+    @Test
+    void shouldKeepTheRemainingResponses_whenTheBatchExceedsThePredefinedSequence() {
+        target.setDefaultStubForQuery(TEST_URL, new SequencedResponse(
+            new RawResponse("test response 1"),
+            new RawResponse("test response 2")
+        ));
+        assertThatExceptionOfType(NoMoreResponsesException.class)
+            .isThrownBy(() -> target.nextBatch(anySource, TEST_URL, String.class, 3));
+        assertThat(target.next(anySource, TEST_URL, String.class)).isEqualTo("test response 1 {}");
+        assertThat(target.nextBatch(anySource, TEST_URL, String.class, 1)).containsExactly("test response 2 {}");
+    }
+
+    @Test
+    void shouldKeepTheRemainingResponses_whenTheBatchExceedsTheDelayedSequence() {
+        target.setDefaultStubForQuery(TEST_URL, new DelayedResponse(new SequencedResponse(
+            new RawResponse("test response 1"),
+            new RawResponse("test response 2")
+        ), 0));
+        assertThatExceptionOfType(NoMoreResponsesException.class)
+            .isThrownBy(() -> target.nextBatch(anySource, TEST_URL, String.class, 3));
+        assertThat(target.next(anySource, TEST_URL, String.class)).isEqualTo("test response 1 {}");
+    }
+
+    @Test
+    void shouldConsumeTheRestOfTheBatch_whenOneOfItsResponsesThrows() {
+        target.setDefaultStubForQuery(TEST_URL, new SequencedResponse(
+            new RawResponse("test response 1"),
+            new ExceptionResponse(new IllegalStateException("test failure")),
+            new RawResponse("test response 3")
+        ));
+        assertThatIllegalStateException()
+            .isThrownBy(() -> target.nextBatch(anySource, TEST_URL, String.class, 3));
+        assertThatExceptionOfType(NoMoreResponsesException.class)
+            .isThrownBy(() -> target.next(anySource, TEST_URL, String.class));
+    }
+
+    @Test
+    void shouldRejectNegativeBatchSize() {
+        target.setDefaultStubForQuery(TEST_URL, new RawResponse("test response"));
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> target.nextBatch(anySource, TEST_URL, String.class, -1));
+    }
+
     record ResponseId(String id) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,241 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.core;
+
+import ewc.utilities.testableio.responses.ChunkedResponse;
+import ewc.utilities.testableio.responses.Chunks;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit-tests for the {@link ChunkedResponse} class.
+ *
+ * @since 0.4
+ */
+final class ChunkedResponseTest {
+    private static final byte[] BODY = "hello chunked world".getBytes(StandardCharsets.UTF_8);
+    private static final QueryId DOWNLOAD = new QueryId("download");
+    private static final SourceId CLIENT = new SourceId("client");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamTheBodyInChunksThroughTheFacade() throws Exception {
+        final StubFacade facade = StubFacade.basic();
+        facade.setDefaultStubForQuery(DOWNLOAD, new ChunkedResponse(Chunks.of(BODY, 8), 0));
+        facade.setConverterForQuery(DOWNLOAD, (content, metadata) -> content);
+        final CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        facade.next(CLIENT, DOWNLOAD, Flow.Publisher.class).subscribe(subscriber);
+        subscriber.completion.get(5, TimeUnit.SECONDS);
+        assertThat(subscriber.chunks).containsExactly("hello ch", "unked wo", "rld");
+    }
+
+    @Test
+    void shouldNotDeliverMoreChunksThanRequested() throws Exception {
+        final CollectingSubscriber subscriber = new CollectingSubscriber(2);
+        publisherOf(new ChunkedResponse(Chunks.of(BODY, 4), 0)).subscribe(subscriber);
+        subscriber.awaitChunks(2);
+        assertThat(subscriber.completion).isNotDone();
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.completion.get(5, TimeUnit.SECONDS);
+        assertThat(subscriber.overflows.get()).isZero();
+        assertThat(String.join("", subscriber.chunks)).isEqualTo("hello chunked world");
+    }
+
+    @Test
+    void shouldWaitBeforeEachChunk() throws Exception {
+        final CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        final long start = System.currentTimeMillis();
+        publisherOf(new ChunkedResponse(Chunks.of(BODY, 8), 100)).subscribe(subscriber);
+        subscriber.completion.get(5, TimeUnit.SECONDS);
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(300);
+        assertThat(subscriber.chunks).hasSize(3);
+    }
+
+    @Test
+    void shouldReadTheChunksFromFile(@TempDir Path directory) throws Exception {
+        final Path file = Files.write(directory.resolve("body.txt"), BODY);
+        final CollectingSubscriber subscriber = new CollectingSubscriber(1);
+        publisherOf(new ChunkedResponse(Chunks.ofFile(file, 10), 0)).subscribe(subscriber);
+        subscriber.awaitChunks(1);
+        subscriber.request(1);
+        subscriber.completion.get(5, TimeUnit.SECONDS);
+        assertThat(subscriber.chunks).containsExactly("hello chun", "ked world");
+    }
+
+    @Test
+    void shouldStreamGigabyteBodyInConstantMemory() throws Exception {
+        final AtomicLong received = new AtomicLong();
+        final CompletableFuture<Long> completion = new CompletableFuture<>();
+        publisherOf(new ChunkedResponse(Chunks.repeated(new byte[64 * 1024], 16 * 1024), 0))
+            .subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(16);
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                    if (received.addAndGet(item.remaining()) % (16 * 64 * 1024) == 0) {
+                        this.subscription.request(16);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completion.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    completion.complete(received.get());
+                }
+            });
+        assertThat(completion.get(30, TimeUnit.SECONDS)).isEqualTo(1024L * 1024 * 1024);
+    }
+
+    @Test
+    void shouldStopDeliveringAfterCancel() throws Exception {
+        final CountDownLatch closed = new CountDownLatch(1);
+        final CollectingSubscriber subscriber = new CollectingSubscriber(1);
+        publisherOf(new ChunkedResponse(closing(Chunks.of(BODY, 1), closed), 0)).subscribe(subscriber);
+        subscriber.awaitChunks(1);
+        subscriber.subscription.cancel();
+        subscriber.request(Long.MAX_VALUE);
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.chunks).containsExactly("h");
+        assertThat(subscriber.completion).isNotDone();
+    }
+
+    @Test
+    void shouldReleaseTheChunks_whenCancelledWhileGoingIdle() throws Exception {
+        for (int attempt = 0; attempt < 1000; attempt++) {
+            final CountDownLatch closed = new CountDownLatch(1);
+            final CollectingSubscriber subscriber = new CollectingSubscriber(1);
+            publisherOf(new ChunkedResponse(closing(Chunks.of(BODY, 1), closed), 0)).subscribe(subscriber);
+            subscriber.awaitChunks(1);
+            subscriber.subscription.cancel();
+            assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidChunks(@TempDir Path directory) {
+        assertThatIllegalArgumentException().isThrownBy(() -> Chunks.of(BODY, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> Chunks.ofFile(directory.resolve("body.txt"), -1));
+        assertThatIllegalArgumentException().isThrownBy(() -> Chunks.repeated(BODY, -1));
+    }
+
+    private static Chunks closing(Chunks chunks, CountDownLatch closed) {
+        return () -> {
+            final Chunks.Cursor cursor = chunks.open();
+            return new Chunks.Cursor() {
+                @Override
+                public ByteBuffer next() throws IOException {
+                    return cursor.next();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    cursor.close();
+                    closed.countDown();
+                }
+            };
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Flow.Publisher<ByteBuffer> publisherOf(ChunkedResponse response) {
+        return response.next((content, metadata) -> (Flow.Publisher<ByteBuffer>) content);
+    }
+
+    /**
+     * The subscriber collecting the chunks and counting the ones delivered beyond its requests.
+     */
+    private static final class CollectingSubscriber implements Flow.Subscriber<ByteBuffer> {
+        private final long initial;
+        private final List<String> chunks = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private final Semaphore received = new Semaphore(0);
+        private final AtomicLong granted = new AtomicLong();
+        private final AtomicLong overflows = new AtomicLong();
+        private volatile Flow.Subscription subscription;
+
+        private CollectingSubscriber(long initial) {
+            this.initial = initial;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            this.request(this.initial);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            if (this.granted.getAndDecrement() <= 0) {
+                this.overflows.incrementAndGet();
+            }
+            this.chunks.add(StandardCharsets.UTF_8.decode(item).toString());
+            this.received.release();
+        }
+
+        private void request(long n) {
+            this.granted.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            this.subscription.request(n);
+        }
+
+        private void awaitChunks(int count) throws InterruptedException {
+            assertThat(this.received.tryAcquire(count, 5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.completion.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.completion.complete(null);
+        }
+    }
+}
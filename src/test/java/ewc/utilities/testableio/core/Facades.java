@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.core;
+
+import ewc.utilities.testableio.responses.RawResponse;
+import ewc.utilities.testableio.responses.Response;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+/**
+ * The helpers shared by the tests of the facades: setting up the facade with a single stub, creating
+ * the numbered responses and calling the facade from many threads at once.
+ *
+ * @since 0.4
+ */
+final class Facades {
+    private Facades() {
+    }
+
+    /**
+     * Sets the default stub and its converter up on the facade.
+     *
+     * @param facade The facade to set up.
+     * @param query The query of the stub.
+     * @param response The default response for the query.
+     * @param converter The converter of the query.
+     * @return The same facade.
+     */
+    static StubFacade withDefaultStub(
+        StubFacade facade,
+        QueryId query,
+        Response response,
+        BiFunction<Object, Map<String, Object>, ?> converter
+    ) {
+        facade.setDefaultStubForQuery(query, response);
+        facade.setConverterForQuery(query, converter);
+        return facade;
+    }
+
+    /**
+     * Creates the raw responses with their numbers as the content.
+     *
+     * @param size The number of responses.
+     * @return The responses numbered from 0.
+     */
+    static Response[] numbered(int size) {
+        return IntStream.range(0, size).mapToObj(RawResponse::new).toArray(Response[]::new);
+    }
+
+    /**
+     * Runs the tasks on the pool of the given number of threads and waits for all of them.
+     *
+     * @param threads The number of threads.
+     * @param tasks The number of tasks.
+     * @param task The task, getting its number from 0.
+     * @param <T> The type of the task results.
+     * @return The results of the tasks in the order of their numbers.
+     * @throws Exception If any of the tasks failed.
+     */
+    static <T> List<T> inParallel(int threads, int tasks, Task<T> task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Callable<T>> calls = IntStream.range(0, tasks)
+                .<Callable<T>>mapToObj(number -> () -> task.run(number))
+                .toList();
+            final List<T> results = new ArrayList<>(tasks);
+            for (Future<T> result : executor.invokeAll(calls)) {
+                results.add(result.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    interface Task<T> {
+        T run(int number) throws Exception;
+    }
+}
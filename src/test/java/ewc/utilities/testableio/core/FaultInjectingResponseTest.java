@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.core;
+
+import ewc.utilities.testableio.exceptions.InjectedFaultException;
+import ewc.utilities.testableio.responses.FaultInjectingResponse;
+import ewc.utilities.testableio.responses.RawResponse;
+import ewc.utilities.testableio.responses.SequencedResponse;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.function.BiFunction;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit-tests for the {@link FaultInjectingResponse} class.
+ *
+ * @since 0.4
+ */
+final class FaultInjectingResponseTest {
+    private static final RawResponse RESPONSE = new RawResponse("content");
+    private static final BiFunction<Object, Map<String, Object>, String> CONVERTER = (c, m) -> c.toString();
+    private static final InjectedFaultException TIMEOUT = InjectedFaultException.timeout();
+    private static final InjectedFaultException RESET = InjectedFaultException.connectionReset();
+
+    @Test
+    void shouldNeverFail_whenRateIsZero() {
+        final FaultInjectingResponse target = new FaultInjectingResponse(RESPONSE, 0, TIMEOUT);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(target.next(CONVERTER)).isEqualTo("content");
+        }
+    }
+
+    @Test
+    void shouldRethrowPreallocatedFault_whenRateIsOne() {
+        final FaultInjectingResponse target = new FaultInjectingResponse(RESPONSE, 1, TIMEOUT);
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> target.next(CONVERTER)).isSameAs(TIMEOUT);
+        }
+    }
+
+    @Test
+    void shouldFailAtTheConfiguredRate() {
+        final FaultInjectingResponse target = new FaultInjectingResponse(RESPONSE, 0.1, TIMEOUT, RESET);
+        int failures = 0;
+        for (int i = 0; i < 100_000; i++) {
+            try {
+                target.next(CONVERTER);
+            } catch (InjectedFaultException e) {
+                failures++;
+            }
+        }
+        assertThat(failures).isBetween(9_000, 11_000);
+    }
+
+    @Test
+    void shouldFailTheBatchWithoutTakingResponses_whenRateIsOne() {
+        final SequencedResponse sequence = new SequencedResponse(RESPONSE, RESPONSE);
+        final FaultInjectingResponse target = new FaultInjectingResponse(sequence, 1, TIMEOUT);
+        assertThatThrownBy(() -> target.nextBatch(CONVERTER, new String[2])).isSameAs(TIMEOUT);
+        final String[] batch = new String[2];
+        sequence.nextBatch(CONVERTER, batch);
+        assertThat(batch).containsExactly("content", "content");
+    }
+
+    @Test
+    void shouldCreateFaultsWithoutStackTraces() {
+        assertThat(TIMEOUT.getStackTrace()).isEmpty();
+        assertThat(TIMEOUT).hasCauseInstanceOf(SocketTimeoutException.class);
+        assertThat(RESET.getStackTrace()).isEmpty();
+        assertThat(RESET).hasCauseInstanceOf(SocketException.class).hasMessage("Connection reset");
+    }
+
+    @Test
+    void shouldBlockBeforeThrowing_whenTimeoutHasDelay() {
+        final InjectedFaultException timeout = InjectedFaultException.timeout(50);
+        final FaultInjectingResponse target = new FaultInjectingResponse(RESPONSE, 1, timeout);
+        final long start = System.nanoTime();
+        assertThatThrownBy(() -> target.next(CONVERTER)).isSameAs(timeout);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(50_000_000L);
+        assertThat(timeout.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new FaultInjectingResponse(RESPONSE, 1.5, TIMEOUT));
+        assertThatIllegalArgumentException().isThrownBy(() -> new FaultInjectingResponse(RESPONSE, 0.5));
+        assertThatIllegalArgumentException().isThrownBy(() -> InjectedFaultException.timeout(-1));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.core;
+
+import ewc.utilities.testableio.exceptions.UnconfiguredStubException;
+import ewc.utilities.testableio.responses.RawResponse;
+import ewc.utilities.testableio.responses.SequencedResponse;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit-tests for the overlay facades created by {@link StubFacade#overlay(StubFacade)}.
+ *
+ * @since 0.4
+ */
+final class OverlayStubFacadeTest {
+    private static final QueryId HOME = new QueryId("home");
+    private static final QueryId COUNTER = new QueryId("counter");
+    private static final SourceId VIP = new SourceId("vip");
+    private StubFacade base;
+
+    @BeforeEach
+    void setUp() {
+        this.base = StubFacade.basic();
+        this.base.setDefaultStubForQuery(HOME, new RawResponse("home page"));
+        this.base.setConverterForQuery(HOME, (content, metadata) -> content.toString());
+        this.base.setDefaultStubForQuery(COUNTER, new SequencedResponse(
+            new RawResponse("first"),
+            new RawResponse("second")
+        ));
+    }
+
+    @Test
+    void shouldReadThroughToTheBase() {
+        final StubFacade overlay = StubFacade.overlay(this.base);
+        assertThat(overlay.next(VIP, HOME, String.class)).isEqualTo("home page");
+        assertThat(overlay.activeStubsForSource(VIP)).containsKeys(HOME, COUNTER);
+    }
+
+    @Test
+    void shouldKeepOwnStubsToItself() {
+        final StubFacade first = StubFacade.overlay(this.base);
+        final StubFacade second = StubFacade.overlay(this.base);
+        first.setStubForQuerySource(VIP, HOME, new RawResponse("vip page"));
+        assertThat(first.next(VIP, HOME, String.class)).isEqualTo("vip page");
+        assertThat(second.next(VIP, HOME, String.class)).isEqualTo("home page");
+        assertThat(this.base.next(VIP, HOME, String.class)).isEqualTo("home page");
+    }
+
+    @Test
+    void shouldAdvanceOwnSequenceCursors() {
+        final StubFacade first = StubFacade.overlay(this.base);
+        final StubFacade second = StubFacade.overlay(this.base);
+        assertThat(first.next(VIP, COUNTER, String.class)).isEqualTo("first {}");
+        assertThat(first.next(VIP, COUNTER, String.class)).isEqualTo("second {}");
+        assertThat(second.next(VIP, COUNTER, String.class)).isEqualTo("first {}");
+        assertThat(first.activeStubsForSource(VIP).get(COUNTER).peekContent())
+            .isEqualTo("NoMoreResponsesException: No more responses available for query: counter");
+        assertThat(second.activeStubsForSource(VIP).get(COUNTER).peekContent()).isEqualTo("second");
+    }
+
+    @Test
+    void shouldFreezeTheBase() {
+        StubFacade.overlay(this.base);
+        assertThatIllegalStateException()
+            .isThrownBy(() -> this.base.setDefaultStubForQuery(HOME, new RawResponse("changed")));
+        assertThatIllegalStateException()
+            .isThrownBy(() -> this.base.resetStubsForSource(VIP));
+    }
+
+    @Test
+    void shouldRevealTheBaseStubAfterReset() {
+        final StubFacade overlay = StubFacade.overlay(this.base);
+        overlay.setStubForQuerySource(VIP, HOME, new RawResponse("vip page"));
+        overlay.resetStubsForSource(VIP);
+        assertThat(overlay.next(VIP, HOME, String.class)).isEqualTo("home page");
+    }
+
+    @Test
+    void shouldHideTheBaseStubsOfTheSource_whenSourceIsReset() {
+        final StubFacade base = StubFacade.basic();
+        base.setDefaultStubForQuery(HOME, new RawResponse("home page"));
+        base.setStubForQuerySource(VIP, HOME, new RawResponse("vip page"));
+        base.setStubForQuerySource(VIP, COUNTER, new RawResponse("vip counter"));
+        base.setConverterForQuery(HOME, (content, metadata) -> content.toString());
+        final StubFacade overlay = StubFacade.overlay(base);
+        overlay.resetStubsForSource(VIP);
+        assertThat(overlay.next(VIP, HOME, String.class)).isEqualTo("home page");
+        assertThat(overlay.activeStubsForSource(VIP)).containsOnlyKeys(HOME);
+        assertThat(StubFacade.overlay(base).next(VIP, HOME, String.class)).isEqualTo("vip page");
+    }
+
+    @Test
+    void shouldHideTheBaseStub_whenStubIsRemoved() {
+        final StubFacade overlay = StubFacade.overlay(this.base);
+        overlay.removeDefaultStubForQuery(COUNTER);
+        assertThat(overlay.activeStubsForSource(VIP)).containsOnlyKeys(HOME);
+        assertThatThrownBy(() -> overlay.next(VIP, COUNTER, String.class))
+            .isInstanceOf(UnconfiguredStubException.class);
+    }
+
+    @Test
+    void shouldIsolateOverlaysUsedInParallel() throws Exception {
+        final List<List<String>> results = Facades.inParallel(8, 64, number -> {
+            final StubFacade overlay = StubFacade.overlay(this.base);
+            return List.of(
+                overlay.next(VIP, COUNTER, String.class),
+                overlay.next(VIP, COUNTER, String.class)
+            );
+        });
+        assertThat(results).containsOnly(List.of("first {}", "second {}"));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.core;
+
+import ewc.utilities.testableio.exceptions.NoMoreResponsesException;
+import ewc.utilities.testableio.responses.Response;
+import ewc.utilities.testableio.responses.SequencedResponse;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit-tests for the sequences created by {@link SequencedResponse#relaxed(int, Response...)}.
+ *
+ * @since 0.4
+ */
+final class RelaxedSequencedResponseTest {
+    private static final QueryId COUNTER = new QueryId("counter");
+    private static final SourceId CLIENT = new SourceId("client");
+
+    @Test
+    void shouldKeepTheOrder_whenCalledFromOneThread() {
+        final StubFacade target = facadeWith(SequencedResponse.relaxed(4, Facades.numbered(10)));
+        for (int i = 0; i < 10; i++) {
+            assertThat(target.next(CLIENT, COUNTER, Integer.class)).isEqualTo(i);
+        }
+        assertThatThrownBy(() -> target.next(CLIENT, COUNTER, Integer.class))
+            .isInstanceOf(NoMoreResponsesException.class);
+    }
+
+    @Test
+    void shouldReturnEveryResponseOnceInThreadOrder_whenAdvancedConcurrently() throws Exception {
+        final StubFacade target = facadeWith(SequencedResponse.relaxed(16, Facades.numbered(4000)));
+        final List<List<Integer>> taken = Facades.inParallel(8, 8, number -> {
+            final List<Integer> result = new ArrayList<>();
+            try {
+                while (true) {
+                    result.add(target.next(CLIENT, COUNTER, Integer.class));
+                }
+            } catch (NoMoreResponsesException e) {
+                return result;
+            }
+        });
+        final List<Integer> all = new ArrayList<>();
+        for (List<Integer> thread : taken) {
+            assertThat(thread).isSorted();
+            all.addAll(thread);
+        }
+        assertThat(all).hasSize(4000).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldTakeTheBatchFromTheBlock() {
+        final StubFacade target = facadeWith(SequencedResponse.relaxed(8, Facades.numbered(20)));
+        assertThat(target.next(CLIENT, COUNTER, Integer.class)).isEqualTo(0);
+        assertThat(target.nextBatch(CLIENT, COUNTER, Integer.class, 3)).containsExactly(1, 2, 3);
+        assertThat(target.nextBatch(CLIENT, COUNTER, Integer.class, 10)).containsExactly(
+            8, 9, 10, 11, 12, 13, 14, 15, 16, 17
+        );
+        assertThat(target.next(CLIENT, COUNTER, Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    void shouldRejectNonPositiveBlockSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> SequencedResponse.relaxed(0, Facades.numbered(3)));
+    }
+
+    private static StubFacade facadeWith(Response response) {
+        return Facades.withDefaultStub(StubFacade.basic(), COUNTER, response, (content, metadata) -> content);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.core;
+
+import ewc.utilities.testableio.responses.RawResponse;
+import ewc.utilities.testableio.responses.Response;
+import ewc.utilities.testableio.responses.SequencedResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit-tests for the facades created by {@link StubFacade#shared(Path, int)}. Each facade maps
+ * the file on its own, just like the facades of different processes do.
+ *
+ * @since 0.4
+ */
+final class SharedStubFacadeTest {
+    private static final QueryId COUNTER = new QueryId("counter");
+    private static final SourceId CLIENT = new SourceId("client");
+    private Path file;
+
+    @BeforeEach
+    void setUp(@TempDir Path directory) {
+        this.file = directory.resolve("stubs.bin");
+    }
+
+    @Test
+    void shouldAdvanceTheSameSequence() {
+        final StubFacade first = facadeWith(sequenceOf(3));
+        final StubFacade second = facadeWith(sequenceOf(3));
+        assertThat(first.next(CLIENT, COUNTER, String.class)).isEqualTo("0");
+        assertThat(second.next(CLIENT, COUNTER, String.class)).isEqualTo("1");
+        assertThat(first.activeStubsForSource(CLIENT).get(COUNTER).peekContent()).isEqualTo(2);
+        assertThat(first.next(CLIENT, COUNTER, String.class)).isEqualTo("2");
+    }
+
+    @Test
+    void shouldNotRewindTheSequence_whenStubIsRegisteredAgain() {
+        final StubFacade first = facadeWith(sequenceOf(3));
+        first.next(CLIENT, COUNTER, String.class);
+        final StubFacade second = facadeWith(sequenceOf(3));
+        assertThat(second.next(CLIENT, COUNTER, String.class)).isEqualTo("1");
+    }
+
+    @Test
+    void shouldRewindTheSequenceForAllFacades_whenSourceIsReset() {
+        final StubFacade first = facadeWith(sequenceOf(3));
+        final StubFacade second = facadeWith(sequenceOf(3));
+        first.setStubForQuerySource(CLIENT, COUNTER, sequenceOf(3));
+        second.setStubForQuerySource(CLIENT, COUNTER, sequenceOf(3));
+        first.next(CLIENT, COUNTER, String.class);
+        second.next(CLIENT, COUNTER, String.class);
+        first.resetStubsForSource(CLIENT);
+        second.setStubForQuerySource(CLIENT, COUNTER, sequenceOf(3));
+        assertThat(second.next(CLIENT, COUNTER, String.class)).isEqualTo("0");
+    }
+
+    @Test
+    void shouldKeepTheNumberOfSlotsOfTheExistingFile() throws Exception {
+        StubFacade.shared(this.file, 16);
+        StubFacade.shared(this.file, 1024);
+        assertThat(Files.size(this.file)).isEqualTo(64 + 16 * 64);
+    }
+
+    @Test
+    void shouldNotTakeSlots_whenResponsesIgnoreTheIndex() {
+        final StubFacade facade = StubFacade.shared(this.file, 4);
+        for (int client = 0; client < 100; client++) {
+            facade.setStubForQuerySource(new SourceId("client-" + client), COUNTER, new RawResponse(client));
+        }
+        facade.setDefaultStubForQuery(COUNTER, sequenceOf(3));
+        assertThat(facade.next(new SourceId("client-7"), COUNTER, String.class)).isEqualTo("7 {}");
+        assertThat(facade.next(CLIENT, COUNTER, String.class)).isEqualTo("0 {}");
+    }
+
+    @Test
+    void shouldRejectForeignFile() throws Exception {
+        Files.writeString(this.file, "definitely not a sequences file");
+        assertThatIllegalStateException().isThrownBy(() -> StubFacade.shared(this.file, 16));
+    }
+
+    @Test
+    void shouldNeverReturnTheSameResponseTwice_whenAdvancedConcurrently() throws Exception {
+        final List<StubFacade> facades = List.of(facadeWith(sequenceOf(4000)), facadeWith(sequenceOf(4000)));
+        final Set<String> seen = ConcurrentHashMap.newKeySet();
+        Facades.inParallel(8, 8, number -> {
+            for (int call = 0; call < 500; call++) {
+                seen.add(facades.get(number % 2).next(CLIENT, COUNTER, String.class));
+            }
+            return null;
+        });
+        assertThat(seen).hasSize(4000);
+    }
+
+    private StubFacade facadeWith(Response response) {
+        return Facades.withDefaultStub(
+            StubFacade.shared(this.file, 16),
+            COUNTER,
+            response,
+            (content, metadata) -> content.toString()
+        );
+    }
+
+    private static Response sequenceOf(int size) {
+        return new SequencedResponse(Facades.numbered(size));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.definitions;
+
+import ewc.utilities.testableio.core.QueryId;
+import ewc.utilities.testableio.core.SourceId;
+import ewc.utilities.testableio.core.StubFacade;
+import ewc.utilities.testableio.exceptions.UnconfiguredStubException;
+import ewc.utilities.testableio.responses.DelayedResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit-tests for the {@link StubDirectory} class.
+ *
+ * @since 0.4
+ */
+final class StubDirectoryTest {
+    private static final QueryId HOME = new QueryId("home");
+    private static final QueryId COUNTER = new QueryId("counter");
+    private static final SourceId CLIENT = new SourceId("client");
+    private static final SourceId VIP = new SourceId("vip");
+
+    @TempDir
+    private Path directory;
+    private StubFacade facade;
+    private StubDirectory target;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.facade = StubFacade.basic();
+        this.facade.setConverterForQuery(HOME, (content, metadata) -> content + " " + metadata.get("code"));
+        this.facade.setConverterForQuery(COUNTER, (content, metadata) -> content.toString());
+        this.target = new StubDirectory(this.directory, this.facade);
+        write("home.stub", "query=home", "content=home page", "meta.code=200");
+        write("counter.stub", "query=counter", "sequence.1.content=first", "sequence.2.content=second",
+            "sequence.10.content=third");
+    }
+
+    @Test
+    void shouldLoadTheDefinitions() throws IOException {
+        write("vip.stub", "query=home", "source=vip", "content=vip page", "delay=5");
+        this.target.reload();
+        assertThat(this.facade.next(CLIENT, HOME, String.class)).isEqualTo("home page 200");
+        assertThat(this.facade.next(VIP, HOME, String.class)).isEqualTo("vip page null");
+        assertThat(this.facade.activeStubsForSource(VIP).get(HOME)).isInstanceOf(DelayedResponse.class);
+        assertThat(this.facade.next(CLIENT, COUNTER, String.class)).isEqualTo("first");
+        assertThat(this.facade.next(CLIENT, COUNTER, String.class)).isEqualTo("second");
+        assertThat(this.facade.next(CLIENT, COUNTER, String.class)).isEqualTo("third");
+    }
+
+    @Test
+    void shouldKeepTheSequencePosition_whenOtherDefinitionChanges() throws IOException {
+        this.target.reload();
+        this.facade.next(CLIENT, COUNTER, String.class);
+        write("home.stub", "query=home", "content=new home page", "meta.code=201");
+        this.target.reload();
+        assertThat(this.facade.next(CLIENT, HOME, String.class)).isEqualTo("new home page 201");
+        assertThat(this.facade.next(CLIENT, COUNTER, String.class)).isEqualTo("second");
+    }
+
+    @Test
+    void shouldKeepTheSequencePosition_whenFileIsTouchedWithoutChanges() throws IOException {
+        this.target.reload();
+        this.facade.next(CLIENT, COUNTER, String.class);
+        Files.setLastModifiedTime(this.directory.resolve("counter.stub"), FileTime.fromMillis(0));
+        this.target.reload();
+        assertThat(this.facade.next(CLIENT, COUNTER, String.class)).isEqualTo("second");
+    }
+
+    @Test
+    void shouldRemoveTheStub_whenFileIsDeleted() throws IOException {
+        this.target.reload();
+        Files.delete(this.directory.resolve("home.stub"));
+        this.target.reload();
+        assertThatThrownBy(() -> this.facade.next(CLIENT, HOME, String.class))
+            .isInstanceOf(UnconfiguredStubException.class);
+    }
+
+    @Test
+    void shouldKeepTheStub_whileAnotherFileDefinesIt() throws IOException {
+        write("copy.stub", "query=home", "content=home page", "meta.code=200");
+        this.target.reload();
+        Files.delete(this.directory.resolve("copy.stub"));
+        this.target.reload();
+        assertThat(this.facade.next(CLIENT, HOME, String.class)).isEqualTo("home page 200");
+        write("home.stub", "query=counter", "content=moved");
+        this.target.reload();
+        assertThat(this.facade.next(CLIENT, COUNTER, String.class)).isEqualTo("moved");
+        Files.delete(this.directory.resolve("home.stub"));
+        this.target.reload();
+        assertThat(this.facade.activeStubsForSource(CLIENT)).containsKey(COUNTER).doesNotContainKey(HOME);
+    }
+
+    @Test
+    void shouldApplyValidDefinitionsAndReportInvalidOnes() throws IOException {
+        write("broken.stub", "source=vip", "content=no query");
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> this.target.reload())
+            .withMessageContaining("1 stub definition(s)");
+        assertThat(this.facade.next(CLIENT, HOME, String.class)).isEqualTo("home page 200");
+    }
+
+    @Test
+    void shouldRejectNegativeDelay() throws IOException {
+        write("vip.stub", "query=home", "source=vip", "content=vip page", "delay=-5");
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> this.target.reload())
+            .withStackTraceContaining("delay must not be negative");
+    }
+
+    @Test
+    void shouldReportBackgroundFailuresAndKeepFollowing() throws Exception {
+        final BlockingQueue<Exception> failures = new LinkedBlockingQueue<>();
+        try (StubDirectory watched = new StubDirectory(this.directory, this.facade, failures::add).watch()) {
+            write("broken.stub", "source=vip", "content=no query");
+            assertThat(failures.poll(10, TimeUnit.SECONDS))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasStackTraceContaining("The query is not defined");
+            assertThat(watched.lastFailure()).isPresent();
+            Files.delete(this.directory.resolve("broken.stub"));
+            write("home.stub", "query=home", "content=changed page", "meta.code=200");
+            awaitHomePage("changed page 200");
+        }
+    }
+
+    @Test
+    void shouldFollowTheChangesInBackground() throws Exception {
+        try (StubDirectory watched = this.target.watch()) {
+            write("home.stub", "query=home", "content=changed page", "meta.code=200");
+            awaitHomePage("changed page 200");
+        }
+    }
+
+    private void awaitHomePage(String expected) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (!expected.equals(this.facade.next(CLIENT, HOME, String.class))
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(this.facade.next(CLIENT, HOME, String.class)).isEqualTo(expected);
+    }
+
+    private void write(String name, String... lines) throws IOException {
+        Files.write(this.directory.resolve(name), String.join("\n", lines).getBytes());
+    }
+}
@@ -27,10 +27,16 @@ package ewc.utilities.testableio.external;
 import ewc.utilities.testableio.core.QueryId;
 import ewc.utilities.testableio.core.SourceId;
 import ewc.utilities.testableio.core.StubFacade;
+import ewc.utilities.testableio.core.StubListener;
 import ewc.utilities.testableio.exceptions.NoMoreResponsesException;
+import ewc.utilities.testableio.exceptions.UnconfiguredStubException;
+import ewc.utilities.testableio.responses.DelayedResponse;
 import ewc.utilities.testableio.responses.ExceptionResponse;
 import ewc.utilities.testableio.responses.RawResponse;
+import ewc.utilities.testableio.responses.Response;
 import ewc.utilities.testableio.responses.SequencedResponse;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -65,6 +71,9 @@ final class EndToEndTest {
     private static final SourceId ANY_CLIENT = new SourceId("any client");
     private static final SourceId VIP_CLIENT = new SourceId("VIP client");
     private static final SourceId NEW_CLIENT = new SourceId("new client");
+    private static final SourceId VIP_TIER = new SourceId("VIP tier");
+    private static final SourceId TENANT = new SourceId("tenant");
+    private static final SourceId COMMON = new SourceId("common");
 
     private StubFacade facade;
 
@@ -182,6 +191,178 @@ final class EndToEndTest {
             ));
     }
 
+    @Test
+    void shouldKeepTheActiveStubsViewCurrent() {
+        final Map<QueryId, Response> view = this.facade.activeStubsView(VIP_CLIENT);
+        assertThat(view).containsEntry(HOME_PAGE, HOME_PAGE_RESPONSE).containsEntry(COUNTER_PAGE, FIRST);
+
+        this.facade.setStubForQuerySource(VIP_CLIENT, HOME_PAGE, VIP_PAGE_RESPONSE);
+        when(ANY_CLIENT).requests(COUNTER_PAGE).responseIs(FIRST.convertedUsing(STRING_CONVERTER));
+        assertThat(view).containsEntry(HOME_PAGE, VIP_PAGE_RESPONSE).containsEntry(COUNTER_PAGE, SECOND);
+
+        this.facade.resetStubsForSource(VIP_CLIENT);
+        assertThat(view).containsEntry(HOME_PAGE, HOME_PAGE_RESPONSE).hasSize(4);
+        assertThatThrownBy(() -> view.put(HOME_PAGE, VIP_PAGE_RESPONSE))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldRefreshTheQueriesOfTheView_whenStubsChange() {
+        final QueryId profile = new QueryId("profile");
+        final Map<QueryId, Response> view = this.facade.activeStubsView(VIP_CLIENT);
+        assertThat(view).hasSize(4).doesNotContainKey(profile);
+        assertThat(view.keySet()).doesNotContain(profile);
+
+        this.facade.setStubForQuerySource(VIP_CLIENT, profile, VIP_PAGE_RESPONSE);
+        assertThat(view).hasSize(5).containsEntry(profile, VIP_PAGE_RESPONSE);
+        assertThat(view.keySet()).contains(profile);
+
+        this.facade.removeStubForQuerySource(VIP_CLIENT, profile);
+        assertThat(view).hasSize(4);
+        assertThat(view.keySet()).doesNotContain(profile);
+    }
+
+    @Test
+    void shouldNotifyListenersAboutChanges() {
+        final List<String> events = new ArrayList<>();
+        this.facade.subscribe(new StubListener() {
+            @Override
+            public void stubSet(SourceId source, QueryId query, Response response) {
+                events.add("set %s %s %s".formatted(source.source(), query.id(), response.peekContent()));
+            }
+
+            @Override
+            public void stubsReset(SourceId source) {
+                events.add("reset %s".formatted(source.source()));
+            }
+
+            @Override
+            public void sequenceAdvanced(SourceId source, QueryId query, Response current) {
+                events.add("advanced %s %s %s".formatted(source.source(), query.id(), current.peekContent()));
+            }
+        });
+
+        this.facade.setStubForQuerySource(VIP_CLIENT, HOME_PAGE, VIP_PAGE_RESPONSE);
+        when(VIP_CLIENT).requests(HOME_PAGE).responseIs(VIP_PAGE_CONTENTS);
+        when(VIP_CLIENT).requests(COUNTER_PAGE).responseIs(FIRST.convertedUsing(STRING_CONVERTER));
+        this.facade.resetStubsForSource(VIP_CLIENT);
+
+        assertThat(events).containsExactly(
+            "set VIP client home VIP home page",
+            "advanced common counter second",
+            "reset VIP client"
+        );
+    }
+
+    @Test
+    void shouldNotifyListenersOnlyAboutTakenResponses() {
+        final List<Object> events = new ArrayList<>();
+        this.facade.subscribe(new StubListener() {
+            @Override
+            public void sequenceAdvanced(SourceId source, QueryId query, Response current) {
+                events.add(current.peekContent());
+            }
+        });
+
+        for (int i = 0; i < 5; i++) {
+            try {
+                this.facade.next(ANY_CLIENT, COUNTER_PAGE, String.class);
+            } catch (NoMoreResponsesException e) {
+                events.add("no more");
+            }
+        }
+
+        assertThat(events).containsExactly(
+            "second",
+            "third",
+            "NoMoreResponsesException: No more responses available for query: counter",
+            "no more",
+            "no more"
+        );
+    }
+
+    @Test
+    void shouldNotifyListenersAboutWrappedSequences() {
+        final List<Object> events = new ArrayList<>();
+        this.facade.subscribe(new StubListener() {
+            @Override
+            public void sequenceAdvanced(SourceId source, QueryId query, Response current) {
+                events.add(current.peekContent());
+            }
+        });
+        this.facade.setDefaultStubForQuery(
+            COUNTER_PAGE,
+            new DelayedResponse(new SequencedResponse(FIRST, SECOND, THIRD), 0)
+        );
+
+        when(ANY_CLIENT).requests(COUNTER_PAGE).responseIs(FIRST.convertedUsing(STRING_CONVERTER));
+        when(ANY_CLIENT).requests(COUNTER_PAGE).responseIs(SECOND.convertedUsing(STRING_CONVERTER));
+
+        assertThat(events).containsExactly("second", "third");
+        assertThat(this.facade.activeStubsForSource(ANY_CLIENT).get(COUNTER_PAGE))
+            .isInstanceOf(DelayedResponse.class);
+    }
+
+    @Test
+    void shouldInheritStubsFromSourceGroups() {
+        this.facade.setSourceGroup(VIP_TIER, TENANT);
+        this.facade.setSourceGroup(VIP_CLIENT, VIP_TIER);
+        this.facade.setStubForQuerySource(TENANT, NUMBER_PAGE, new RawResponse(42L));
+        this.facade.setStubForQuerySource(VIP_TIER, HOME_PAGE, VIP_PAGE_RESPONSE);
+
+        when(VIP_CLIENT).requests(HOME_PAGE).responseIs(VIP_PAGE_CONTENTS);
+        when(VIP_CLIENT).requests(NUMBER_PAGE).responseIs(42L);
+        when(VIP_TIER).requests(NUMBER_PAGE).responseIs(42L);
+        when(NEW_CLIENT).requests(HOME_PAGE).responseIs(HOME_PAGE_CONTENTS);
+        assertThat(this.facade.activeStubsForSource(VIP_CLIENT))
+            .containsEntry(HOME_PAGE, VIP_PAGE_RESPONSE)
+            .containsEntry(MISSING_PAGE, MISSING_PAGE_RESPONSE);
+
+        this.facade.setStubForQuerySource(VIP_CLIENT, HOME_PAGE, HOME_PAGE_RESPONSE);
+        when(VIP_CLIENT).requests(HOME_PAGE).responseIs(HOME_PAGE_CONTENTS);
+    }
+
+    @Test
+    void shouldForgetResolvedStubs_whenAnyLevelChanges() {
+        this.facade.setSourceGroup(VIP_TIER, TENANT);
+        this.facade.setSourceGroup(VIP_CLIENT, VIP_TIER);
+        this.facade.setStubForQuerySource(TENANT, HOME_PAGE, VIP_PAGE_RESPONSE);
+        when(VIP_CLIENT).requests(HOME_PAGE).responseIs(VIP_PAGE_CONTENTS);
+
+        this.facade.setStubForQuerySource(VIP_TIER, HOME_PAGE, new RawResponse("tier page"));
+        when(VIP_CLIENT).requests(HOME_PAGE).responseIs("tier page");
+
+        this.facade.resetStubsForSource(VIP_TIER);
+        when(VIP_CLIENT).requests(HOME_PAGE).responseIs(VIP_PAGE_CONTENTS);
+
+        this.facade.setSourceGroup(VIP_CLIENT, NEW_CLIENT);
+        when(VIP_CLIENT).requests(HOME_PAGE).responseIs(HOME_PAGE_CONTENTS);
+
+        this.facade.setDefaultStubForQuery(HOME_PAGE, new RawResponse("new home page"));
+        when(VIP_CLIENT).requests(HOME_PAGE).responseIs("new home page");
+    }
+
+    @Test
+    void shouldForgetResolvedDefaultStubs_whenDefaultSourceIsReset() {
+        this.facade.setSourceGroup(VIP_CLIENT, VIP_TIER);
+        when(VIP_CLIENT).requests(HOME_PAGE).responseIs(HOME_PAGE_CONTENTS);
+
+        this.facade.resetStubsForSource(COMMON);
+
+        assertThat(this.facade.activeStubsForSource(VIP_CLIENT)).isEmpty();
+        assertThatThrownBy(() -> this.facade.next(VIP_CLIENT, HOME_PAGE, String.class))
+            .isInstanceOf(UnconfiguredStubException.class);
+    }
+
+    @Test
+    void shouldRejectCyclicSourceGroups() {
+        this.facade.setSourceGroup(VIP_TIER, TENANT);
+        this.facade.setSourceGroup(VIP_CLIENT, VIP_TIER);
+        assertThatThrownBy(() -> this.facade.setSourceGroup(TENANT, VIP_CLIENT))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("cycle");
+    }
+
     private When when(SourceId source) {
         return new When(source);
     }
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.junit;
+
+import ewc.utilities.testableio.core.QueryId;
+import ewc.utilities.testableio.core.SourceId;
+import ewc.utilities.testableio.core.StubFacade;
+import ewc.utilities.testableio.responses.RawResponse;
+import ewc.utilities.testableio.responses.SequencedResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+
+/**
+ * Tests for the {@link StubFacadeExtension}, run concurrently against the same baseline.
+ *
+ * @since 0.4
+ */
+@StubbedWith(StubFacadeExtensionTest.Baseline.class)
+@Execution(ExecutionMode.CONCURRENT)
+final class StubFacadeExtensionTest {
+    private static final QueryId HOME = new QueryId("home");
+    private static final QueryId COUNTER = new QueryId("counter");
+    private static final SourceId CLIENT = new SourceId("client");
+    private static final AtomicInteger CONFIGURATIONS = new AtomicInteger();
+
+    @RepeatedTest(20)
+    void shouldInjectIsolatedFacade(StubFacade facade) {
+        assertThat(facade.next(CLIENT, COUNTER, String.class)).isEqualTo("first");
+        assertThat(facade.next(CLIENT, COUNTER, String.class)).isEqualTo("second");
+    }
+
+    @RepeatedTest(20)
+    void shouldKeepChangesWithinTheTest(StubFacade facade) {
+        assertThat(facade.next(CLIENT, HOME, String.class)).isEqualTo("home page");
+        facade.setStubForQuerySource(CLIENT, HOME, new RawResponse("changed page"));
+        assertThat(facade.next(CLIENT, HOME, String.class)).isEqualTo("changed page");
+    }
+
+    @Test
+    void shouldConfigureTheBaselineOnce(StubFacade facade) {
+        assertThat(facade.activeStubsForSource(CLIENT)).containsKeys(HOME, COUNTER);
+        assertThat(CONFIGURATIONS).hasValue(1);
+    }
+
+    @Test
+    void shouldCountTheUsedStubs(StubFacade facade) {
+        facade.next(CLIENT, HOME, String.class);
+        facade.next(CLIENT, HOME, String.class);
+        assertThat(((CountingStubFacade) facade).usage()).containsEntry("home @ client", "2");
+    }
+
+    @Test
+    void shouldRefuseConstructorInjection() {
+        final SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        LauncherFactory.create().execute(
+            LauncherDiscoveryRequestBuilder.request().selectors(selectClass(ConstructorInjected.class)).build(),
+            listener
+        );
+        assertThat(listener.getSummary().getTestsFailedCount()).isEqualTo(2);
+        assertThat(listener.getSummary().getFailures())
+            .allSatisfy(failure -> assertThat(failure.getException())
+                .isInstanceOf(ParameterResolutionException.class)
+                .hasMessageContaining("not into constructors"));
+    }
+
+    /**
+     * The tests taking the facade in the constructor, which is resolved for the whole class. They
+     * are only run by {@link #shouldRefuseConstructorInjection()}.
+     */
+    @StubbedWith(Baseline.class)
+    static final class ConstructorInjected {
+        private final StubFacade facade;
+
+        ConstructorInjected(StubFacade facade) {
+            this.facade = facade;
+        }
+
+        @Test
+        void first() {
+            assertThat(this.facade.next(CLIENT, COUNTER, String.class)).isEqualTo("first");
+        }
+
+        @Test
+        void second() {
+            assertThat(this.facade.next(CLIENT, COUNTER, String.class)).isEqualTo("first");
+        }
+    }
+
+    public static final class Baseline implements StubBaseline {
+        @Override
+        public void configure(StubFacade facade) {
+            CONFIGURATIONS.incrementAndGet();
+            facade.setDefaultStubForQuery(HOME, new RawResponse("home page"));
+            facade.setDefaultStubForQuery(COUNTER, new SequencedResponse(
+                new RawResponse("first"),
+                new RawResponse("second")
+            ));
+            facade.setConverterForQuery(HOME, (content, metadata) -> content.toString());
+            facade.setConverterForQuery(COUNTER, (content, metadata) -> content.toString());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Eugene Terekhov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ewc.utilities.testableio.load;
+
+import ewc.utilities.testableio.core.QueryId;
+import ewc.utilities.testableio.core.StubFacade;
+import ewc.utilities.testableio.exceptions.InjectedFaultException;
+import ewc.utilities.testableio.responses.FaultInjectingResponse;
+import ewc.utilities.testableio.responses.RawResponse;
+import java.time.Duration;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit-tests for the {@link LoadGenerator} class.
+ *
+ * @since 0.4
+ */
+final class LoadGeneratorTest {
+    private static final QueryId HEALTHY = new QueryId("healthy");
+    private static final QueryId FLAKY = new QueryId("flaky");
+
+    @Test
+    void shouldReportRequestsLatenciesAndFailures() throws InterruptedException {
+        final StubFacade facade = StubFacade.basic();
+        facade.setDefaultStubForQuery(HEALTHY, new RawResponse("content"));
+        facade.setDefaultStubForQuery(
+            FLAKY,
+            new FaultInjectingResponse(new RawResponse("content"), 0.5, InjectedFaultException.timeout())
+        );
+        final LoadGenerator target = new LoadGenerator(
+            facade,
+            Map.of(HEALTHY, 3, FLAKY, 1),
+            200,
+            Duration.ofMillis(1)
+        );
+
+        final LoadReport actual = target.run(Duration.ofMillis(300));
+
+        assertThat(actual.clients()).isEqualTo(200);
+        assertThat(actual.requests()).isPositive();
+        assertThat(actual.failures()).containsOnlyKeys("InjectedFaultException");
+        assertThat(actual.failures().get("InjectedFaultException")).isBetween(1L, actual.requests() - 1);
+        assertThat(actual.p50()).isLessThanOrEqualTo(actual.p90());
+        assertThat(actual.p90()).isLessThanOrEqualTo(actual.p99());
+        assertThat(actual.p99()).isLessThanOrEqualTo(actual.p999());
+        assertThat(actual.p999()).isLessThanOrEqualTo(actual.max());
+        assertThat(actual.throughput()).isPositive();
+        assertThat(actual.toString()).contains("200 clients");
+    }
+
+    @Test
+    void shouldCountErrorsAsFailures() throws InterruptedException {
+        final StubFacade facade = StubFacade.basic();
+        facade.setDefaultStubForQuery(HEALTHY, new RawResponse("content"));
+        facade.setConverterForQuery(HEALTHY, (content, metadata) -> {
+            throw new AssertionError("unexpected content");
+        });
+        final LoadGenerator target = new LoadGenerator(facade, Map.of(HEALTHY, 1), 4, Duration.ofMillis(1));
+
+        final LoadReport actual = assertTimeoutPreemptively(
+            Duration.ofSeconds(5),
+            () -> target.run(Duration.ofMillis(100))
+        );
+
+        assertThat(actual.failures()).containsOnlyKeys("AssertionError");
+        assertThat(actual.failures().get("AssertionError")).isEqualTo(actual.requests());
+    }
+
+    @Test
+    void shouldSimulateMoreClientsThanThreads() throws InterruptedException {
+        final StubFacade facade = StubFacade.basic();
+        facade.setDefaultStubForQuery(HEALTHY, new RawResponse("content"));
+        final LoadGenerator target = new LoadGenerator(facade, Map.of(HEALTHY, 1), 50_000, Duration.ofMillis(10));
+
+        final LoadReport actual = target.run(Duration.ofMillis(300));
+
+        assertThat(actual.requests()).isPositive();
+        assertThat(actual.failures()).isEmpty();
+        assertThat(actual.allocatedBytes()).isNotZero();
+    }
+
+    @Test
+    void shouldRejectEmptyMix() {
+        assertThatThrownBy(() -> new LoadGenerator(StubFacade.basic(), Map.of(), 1, Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldApproximatePercentiles() {
+        final LatencyHistogram target = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 10_000; nanos++) {
+            target.record(nanos);
+        }
+
+        assertThat(target.count()).isEqualTo(10_000);
+        assertThat(target.max()).isEqualTo(10_000);
+        assertThat(target.percentile(50)).isCloseTo(5_000L, withinPercentage(5));
+        assertThat(target.percentile(99)).isCloseTo(9_900L, withinPercentage(5));
+        assertThat(target.percentile(100)).isLessThanOrEqualTo(10_000);
+    }
+}